@@ -0,0 +1,89 @@
+package org.example.benchmark;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.config.AuthFilter;
+import org.example.dao.InMemorySessionDAO;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.example.util.SessionHelper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of AuthFilter plus the identity reads a controller makes (user ID and role through
+ * SessionHelper), with an HttpSession lookup, a signed-token check or a session-store lookup served by the
+ * near-cache. Servlet objects are Spring's mocks, so this is the filter's own overhead: Tomcat's session lookup
+ * and cookie parsing are not included, nor is the store's database read on a near-cache miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    @Param({"session", "token", "store"})
+    String mode;
+
+    private AuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean tokens = mode.equals("token");
+        SessionTokenService tokenService = new SessionTokenService(tokens,
+            "benchmark-secret-benchmark-secret".getBytes(StandardCharsets.UTF_8), Duration.ofHours(8), Clock.systemUTC());
+        SessionStoreService sessionStore = new SessionStoreService(mode.equals("store") ? new InMemorySessionDAO() : null,
+            Duration.ofMinutes(30), Duration.ofSeconds(30), 1000, Clock.systemUTC(), Ticker.systemTicker());
+        filter = new AuthFilter(tokenService, sessionStore);
+        request = new MockHttpServletRequest("GET", "/expenses");
+        response = new MockHttpServletResponse();
+        User user = new User("user1", "hash");
+        user.setId(2L);
+        if (tokens) {
+            request.setCookies(new Cookie(SessionTokenService.COOKIE_NAME, tokenService.issue(user)));
+        } else if (sessionStore.isEnabled()) {
+            request.setCookies(new Cookie(SessionStoreService.COOKIE_NAME, sessionStore.create(user)));
+        } else {
+            MockHttpSession session = new MockHttpSession();
+            session.setAttribute("userId", 2L);
+            session.setAttribute("userRole", UserRole.USER);
+            request.setSession(session);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void filterRequest(Blackhole blackhole) throws IOException, ServletException {
+        FilterChain controller = (req, res) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) req;
+            blackhole.consume(SessionHelper.getUserId(httpRequest.getSession(false)));
+            blackhole.consume(SessionHelper.getUserRole(httpRequest.getSession(false)));
+        };
+        filter.doFilter(request, response, controller);
+    }
+}
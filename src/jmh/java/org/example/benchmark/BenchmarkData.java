@@ -0,0 +1,102 @@
+package org.example.benchmark;
+
+import org.example.dao.ExpenseDAOImpl;
+import org.example.dao.ExpenseIdSequenceDAOImpl;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.example.service.ExpenseIdService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Shared fixtures for the JMH benchmarks. Data is generated from a fixed seed and databases are
+ * in-memory H2 in MySQL mode migrated with the Flyway scripts, so runs on different machines see the same inputs.
+ */
+final class BenchmarkData {
+
+    static final int USERS = 10;
+    static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    static final int DAYS = 730;
+
+    private static final long SEED = 42;
+    private static final String[] DESCRIPTIONS = {
+        "Lunch", "Coffee", "Groceries", "Bus ticket", "Taxi", "Gas bill", "Movie ticket",
+        "Shopping, weekly", "Dinner \"special\"", "Breakfast", "Electricity bill", "Water bill", "Rent payment"
+    };
+
+    private BenchmarkData() {
+    }
+
+    // Expenses spread evenly over USERS users, all categories and two years of dates
+    static List<Expense> expenses(int size) {
+        Random random = new Random(SEED);
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        List<Expense> expenses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Expense expense = new Expense(
+                DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                BigDecimal.valueOf(100 + random.nextInt(50_000), 2),
+                categories[random.nextInt(categories.length)],
+                FIRST_DAY.plusDays(random.nextInt(DAYS)),
+                (long) (i % USERS) + 1);
+            expense.setId((long) i / USERS + 1);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    static DataSource database() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        try (Connection conn = dataSource.getConnection()) {
+            // The migrations create users 1-3
+            for (long userId = 4; userId <= USERS; userId++) {
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO users (id, username, password, role) VALUES (?, ?, 'x', 'USER')")) {
+                    stmt.setLong(1, userId);
+                    stmt.setString(2, "bench" + userId);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+        return dataSource;
+    }
+
+    // A database holding expenses(size), with ID sequences and summaries brought up to date
+    static ExpenseDAOImpl loadedExpenseDAO(DataSource dataSource, int size) {
+        ExpenseIdSequenceDAOImpl sequenceDAO = sequenceDAO(dataSource);
+        ExpenseDAOImpl expenseDAO = expenseDAO(dataSource, new ExpenseIdService(sequenceDAO, 50));
+        List<Expense> expenses = expenses(size);
+        for (int from = 0; from < size; from += 10_000) {
+            expenseDAO.saveAll(expenses.subList(from, Math.min(size, from + 10_000)));
+        }
+        sequenceDAO.seedFromExpenses();
+        expenseDAO.rebuildSummaries();
+        return expenseDAO;
+    }
+
+    static ExpenseIdSequenceDAOImpl sequenceDAO(DataSource dataSource) {
+        ExpenseIdSequenceDAOImpl sequenceDAO = new ExpenseIdSequenceDAOImpl();
+        ReflectionTestUtils.setField(sequenceDAO, "dataSource", dataSource);
+        return sequenceDAO;
+    }
+
+    static ExpenseDAOImpl expenseDAO(DataSource dataSource, ExpenseIdService idService) {
+        ExpenseDAOImpl expenseDAO = new ExpenseDAOImpl();
+        ReflectionTestUtils.setField(expenseDAO, "dataSource", dataSource);
+        ReflectionTestUtils.setField(expenseDAO, "expenseIdService", idService);
+        return expenseDAO;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.benchmark;
+
+import org.example.model.Expense;
+import org.example.service.CsvExportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private List<Expense> expenses;
+    // exportToCsv only formats the list it is given
+    private final CsvExportService csvExportService = new CsvExportService(null, null);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = BenchmarkData.expenses(size);
+    }
+
+    @Benchmark
+    public String exportToCsv() {
+        return csvExportService.exportToCsv(expenses);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.benchmark;
+
+import org.example.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Dashboard reads come from expense_summaries, so times should stay flat as the expense count grows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DashboardBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dashboardService = new DashboardService(BenchmarkData.loadedExpenseDAO(BenchmarkData.database(), size));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> spendingByCategoryForUser() {
+        return dashboardService.getSpendingByCategoryForUser(1L);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> spendingByMonthForUser() {
+        return dashboardService.getSpendingByMonthForUser(1L);
+    }
+
+    @Benchmark
+    public BigDecimal totalSpendingForUser() {
+        return dashboardService.getTotalSpendingForUser(1L);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> spendingByMonthAllUsers() {
+        return dashboardService.getSpendingByMonth();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.benchmark;
+
+import org.example.model.Expense;
+import org.example.service.ExpenseFilterService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpenseFilterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private List<Expense> expenses;
+    private ExpenseFilterService filterService;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = BenchmarkData.expenses(size);
+        // filterExpenses works on the list it is given and never reaches the DAO
+        filterService = new ExpenseFilterService(null);
+        start = BenchmarkData.FIRST_DAY.plusMonths(3);
+        end = start.plusMonths(6);
+    }
+
+    @Benchmark
+    public List<Expense> filterByDateRange() {
+        return filterService.filterExpenses(expenses, start, end, null);
+    }
+
+    @Benchmark
+    public List<Expense> filterByCategory() {
+        return filterService.filterExpenses(expenses, null, null, "Food");
+    }
+
+    @Benchmark
+    public List<Expense> filterByDateRangeAndCategory() {
+        return filterService.filterExpenses(expenses, start, end, "Food");
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.benchmark;
+
+import org.example.service.ExpenseIdService;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ID allocation should cost the same whatever the number of existing expenses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpenseIdServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private ExpenseIdService idService;
+    private final AtomicLong nextUser = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource dataSource = BenchmarkData.database();
+        BenchmarkData.loadedExpenseDAO(dataSource, size);
+        idService = new ExpenseIdService(BenchmarkData.sequenceDAO(dataSource), 50);
+    }
+
+    @Benchmark
+    public Long nextIdSingleUser() {
+        return idService.getNextAvailableIdForUser(1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long nextIdAcrossUsers() {
+        return idService.getNextAvailableIdForUser(nextUser.getAndIncrement() % BenchmarkData.USERS + 1);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.benchmark;
+
+import org.example.dao.ExpenseDAOImpl;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one user's expenses through the DAO's positional row mapper against the previous mapping
+ * ({@code SELECT *}, columns by name, validating setters). Run with {@code -prof gc} and compare
+ * gc.alloc.rate.norm, the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpenseRowMappingBenchmark {
+
+    // Expenses per user is size / BenchmarkData.USERS
+    @Param({"10000", "100000"})
+    int size;
+
+    private DataSource database;
+    private ExpenseDAOImpl expenseDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkData.database();
+        expenseDAO = BenchmarkData.loadedExpenseDAO(database, size);
+    }
+
+    @Benchmark
+    public List<Expense> byPosition() {
+        return expenseDAO.findAllByUserId(1L);
+    }
+
+    @Benchmark
+    public List<Expense> byName() throws SQLException {
+        List<Expense> expenses = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM expenses WHERE user_id = ?")) {
+            stmt.setLong(1, 1L);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Expense expense = new Expense();
+                    expense.setId(rs.getLong("id"));
+                    BigDecimal amount = rs.getBigDecimal("amount");
+                    // setAmount used to build its upper limit on every call
+                    if (amount.compareTo(new BigDecimal("99999999.99")) > 0) {
+                        throw new IllegalArgumentException("Amount cannot exceed 99,999,999.99");
+                    }
+                    expense.setAmount(amount);
+                    expense.setCategory(scanCategories(rs.getString("category")));
+                    expense.setDate(rs.getDate("date").toLocalDate());
+                    expense.setDescription(rs.getString("description"));
+                    expense.setUserId(rs.getLong("user_id"));
+                    expenses.add(expense);
+                }
+            }
+        }
+        return expenses;
+    }
+
+    // The former ExpenseCategory.fromString: a linear scan over a fresh values() copy
+    private static ExpenseCategory scanCategories(String category) {
+        for (ExpenseCategory candidate : ExpenseCategory.values()) {
+            if (candidate.getDisplayName().equals(category) || candidate.name().equals(category)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Invalid category: " + category);
+    }
+}
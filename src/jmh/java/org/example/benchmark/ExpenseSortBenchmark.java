@@ -0,0 +1,36 @@
+package org.example.benchmark;
+
+import org.example.model.Expense;
+import org.example.service.ExpenseSortService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpenseSortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"id", "description", "amount", "category", "date"})
+    String sortBy;
+
+    private List<Expense> expenses;
+    private final ExpenseSortService sortService = new ExpenseSortService();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = BenchmarkData.expenses(size);
+    }
+
+    @Benchmark
+    public List<Expense> sortExpenses() {
+        return sortService.sortExpenses(expenses, sortBy);
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.benchmark;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test against a running instance, used to compare the platform and virtual thread
+ * request modes (VIRTUAL_THREADS=false/true). Logs in once, seeds expenses, then keeps {@code clients}
+ * concurrent callers cycling through JDBC-backed read endpoints for the given duration and prints
+ * throughput and latency percentiles.
+ * <p>
+ * Start the app in one mode, then:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.example.benchmark.HttpLoadTest \
+ *     -Dexec.args="http://localhost:8080 user1 user1 400 60"
+ * </pre>
+ * Differences show once {@code clients} exceeds Tomcat's 200 platform threads; both modes are still capped
+ * by {@code spring.datasource.hikari.maximum-pool-size}.
+ */
+public class HttpLoadTest {
+
+    private static final List<String> PATHS = List.of(
+        "/api/expenses/page?after=&size=20&includeTotal=true",
+        "/api/expenses/total",
+        "/api/expenses?sortBy=date",
+        "/api/dashboard/category-data");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String username = args.length > 1 ? args[1] : "user1";
+        String password = args.length > 2 ? args[2] : "user1";
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        login(client, baseUrl, username, password);
+        send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/expenses/random/500"))
+            .POST(HttpRequest.BodyPublishers.noBody()).build());
+
+        // Warm up the server's JIT and connection pool before measuring
+        run(client, baseUrl, clients, Math.min(10, seconds));
+        Result result = run(client, baseUrl, clients, seconds);
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s "
+                + "p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+            clients, seconds, result.latencies.length, result.errors, result.latencies.length / (double) seconds,
+            percentile(result.latencies, 0.50), percentile(result.latencies, 0.90),
+            percentile(result.latencies, 0.99), percentile(result.latencies, 1.0));
+    }
+
+    private static Result run(HttpClient client, String baseUrl, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Result>> callers = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                callers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS.get(i % PATHS.size())))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(client, request);
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (status != 200) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - started;
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+
+        long errors = 0;
+        List<long[]> all = new ArrayList<>(clients);
+        for (Future<Result> caller : callers) {
+            Result result = caller.get();
+            all.add(result.latencies);
+            errors += result.errors;
+        }
+        long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(merged, errors);
+    }
+
+    private static void login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+            + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        // A successful login redirects to /expenses; a failed one renders the login page again
+        if (response.statusCode() != 302) {
+            throw new IllegalStateException("Login failed for " + username + " (HTTP " + response.statusCode() + ")");
+        }
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Latencies are sorted nanoseconds; the result is in milliseconds
+    private static double percentile(long[] latencies, double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * latencies.length) - 1;
+        return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {}
+}
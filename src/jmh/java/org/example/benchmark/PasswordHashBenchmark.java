@@ -0,0 +1,38 @@
+package org.example.benchmark;
+
+import org.example.service.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One login check (bcrypt verify) at each work factor. Pick the highest strength whose time stays well inside
+ * the login latency target: with {@code expense.auth.hash-threads} = N cores the pool sustains about
+ * N / time logins per second, and a full queue of {@code expense.auth.hash-queue} adds queue / N × time
+ * of waiting before requests start getting 429.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"8", "10", "12"})
+    int strength;
+
+    private PasswordHasher hasher;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hasher = new PasswordHasher(strength);
+        stored = hasher.hash("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.matches("correct horse battery staple", stored);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.config.RequestScopedDataSource;
+import org.example.dao.ExpenseDAOImpl;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
+import org.example.dao.ExpenseTotals;
+import org.example.model.Expense;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The DAO calls behind one expense list page (filtered totals, the page itself, the user's overall totals)
+ * through a Hikari pool, with a connection per DAO call or one per request. Besides the time per page it
+ * prints the pool checkouts per page. The effect of the driver's statement cache is measured against MySQL
+ * by StatementCacheTest, since H2 has no prepare round trip to save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestConnectionBenchmark {
+
+    @Param({"per-call", "per-request"})
+    String connection;
+
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder borrows = new LongAdder();
+
+    private HikariDataSource pool;
+    private RequestScopedDataSource dataSource;
+    private ExpenseDAOImpl expenseDAO;
+    private ExpenseQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource database = BenchmarkData.database();
+        BenchmarkData.loadedExpenseDAO(database, 100_000);
+
+        pool = new HikariDataSource();
+        pool.setDataSource(database);
+        pool.setMaximumPoolSize(4);
+        dataSource = new RequestScopedDataSource(new DelegatingDataSource(pool) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                borrows.increment();
+                return super.getConnection();
+            }
+        });
+        expenseDAO = BenchmarkData.expenseDAO(dataSource, null);
+        query = ExpenseQuery.forUser(1L).withDateRange(BenchmarkData.FIRST_DAY.plusMonths(3), BenchmarkData.FIRST_DAY.plusMonths(9));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        pages.reset();
+        borrows.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounters() {
+        double count = Math.max(1, pages.sum());
+        System.out.printf("  borrows/page=%.2f%n", borrows.sum() / count);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<Expense> listPage() {
+        pages.increment();
+        if (connection.equals("per-request")) {
+            try (RequestScopedDataSource.ConnectionScope scope = dataSource.openScope()) {
+                return renderPage();
+            }
+        }
+        return renderPage();
+    }
+
+    private List<Expense> renderPage() {
+        ExpenseTotals totals = expenseDAO.totalsByQuery(query);
+        List<Expense> page = expenseDAO.findPageByQuery(query, ExpenseSortOrder.DATE, 2, 20);
+        ExpenseTotals overall = expenseDAO.totalsByUserId(1L);
+        return totals.count() > 0 && overall.count() > 0 ? page : List.of();
+    }
+}
@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Serves user-scoped listings ordered by date DESC, id DESC and keyset page seeks. Databases created by the
+ * later schema.sql versions already have this index, and MySQL has no CREATE INDEX IF NOT EXISTS, so it is
+ * only created when missing. Lives in db.migration so Flyway finds it next to the SQL migrations.
+ */
+public class V1_1__Expense_listing_index extends BaseJavaMigration {
+
+    private static final String INDEX = "idx_expenses_user_date_id";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (indexExists(connection)) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX " + INDEX + " ON expenses (user_id, date, id)");
+        }
+    }
+
+    private static boolean indexExists(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "EXPENSES" : "expenses";
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (indexes.next()) {
+                if (INDEX.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
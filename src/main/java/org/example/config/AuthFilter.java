@@ -1,14 +1,27 @@
 package org.example.config;
 
 import jakarta.servlet.*;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.example.model.AuthIdentity;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
 
 import java.io.IOException;
 
 public class AuthFilter implements Filter {
 
+    private final SessionTokenService tokenService;
+    private final SessionStoreService sessionStore;
+
+    public AuthFilter(SessionTokenService tokenService, SessionStoreService sessionStore) {
+        this.tokenService = tokenService;
+        this.sessionStore = sessionStore;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -17,20 +30,68 @@ public class AuthFilter implements Filter {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         String path = httpRequest.getRequestURI();
 
+        // Signed tokens take precedence over the session store; with neither, Tomcat's HttpSession is used
+        boolean sessionless = tokenService.isEnabled() || sessionStore.isEnabled();
+        if (sessionless) {
+            httpRequest = new SessionlessRequest(httpRequest);
+        }
+
         // Allow access to login page and static resources
         if (path.equals("/login") || path.startsWith("/css/") || path.startsWith("/js/")) {
-            chain.doFilter(request, response);
+            chain.doFilter(httpRequest, response);
             return;
         }
 
-        HttpSession session = httpRequest.getSession(false);
-        boolean isLoggedIn = (session != null && session.getAttribute("userId") != null);
+        boolean isLoggedIn = sessionless ? hasValidCookie(httpRequest) : hasSessionUser(httpRequest);
 
         if (!isLoggedIn) {
             httpResponse.sendRedirect("/login");
             return;
         }
 
-        chain.doFilter(request, response);
+        chain.doFilter(httpRequest, response);
+    }
+
+    private static boolean hasSessionUser(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null && session.getAttribute("userId") != null;
+    }
+
+    // The identity is put on the request for SessionHelper
+    private boolean hasValidCookie(HttpServletRequest request) {
+        String cookieName = tokenService.isEnabled() ? SessionTokenService.COOKIE_NAME : SessionStoreService.COOKIE_NAME;
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                AuthIdentity identity = tokenService.isEnabled()
+                    ? tokenService.verify(cookie.getValue()) : sessionStore.find(cookie.getValue());
+                if (identity != null) {
+                    request.setAttribute(AuthIdentity.REQUEST_ATTRIBUTE, identity);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Without container sessions no HttpSession is ever created, so HttpSession parameters resolve to null
+    private static final class SessionlessRequest extends HttpServletRequestWrapper {
+
+        SessionlessRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return null;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.dao.CachingExpenseDAO;
+import org.example.dao.CachingUserDAO;
+import org.example.dao.ExpenseDAO;
+import org.example.dao.SessionDAO;
+import org.example.dao.UserDAO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Wraps the {@link ExpenseDAO}, {@link UserDAO} and {@link SessionDAO} beans in a proxy that records, per DAO method:
+ * <ul>
+ *   <li>{@code dao.query} - latency timer tagged with the outcome, published as a percentile histogram</li>
+ *   <li>{@code dao.query.errors} - failure counter tagged with the exception type</li>
+ *   <li>{@code dao.query.rows} - rows returned, for methods that return a list, a single entity or stream rows
+ *       to a consumer</li>
+ * </ul>
+ * The caching decorators are left alone, so these figures are always database calls.
+ * The registry is looked up on first use so this post-processor does not force it to be created early.
+ */
+@Component
+public class DaoMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final List<Class<?>> METERED_DAOS = List.of(ExpenseDAO.class, UserDAO.class, SessionDAO.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DaoMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Only the JDBC DAOs are timed; the caches report their own metrics
+        if (bean instanceof CachingExpenseDAO || bean instanceof CachingUserDAO) {
+            return bean;
+        }
+        for (Class<?> dao : METERED_DAOS) {
+            if (dao.isInstance(bean)) {
+                return Proxy.newProxyInstance(dao.getClassLoader(), new Class<?>[]{dao},
+                    new MeteredInvocationHandler(bean, dao.getSimpleName()));
+            }
+        }
+        return bean;
+    }
+
+    private final class MeteredInvocationHandler implements InvocationHandler {
+        private final Object target;
+        private final String daoName;
+        private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+        MeteredInvocationHandler(Object target, String daoName) {
+            this.target = target;
+            this.daoName = daoName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return invokeTarget(method, args);
+            }
+
+            MethodMeters methodMeters = meters.computeIfAbsent(method, m -> new MethodMeters(registry, daoName, m));
+            LongAdder streamedRows = countStreamedRows(args);
+            Timer.Sample sample = Timer.start(registry);
+            try {
+                Object result = invokeTarget(method, args);
+                sample.stop(methodMeters.success);
+                recordRows(methodMeters, result, streamedRows);
+                return result;
+            } catch (Throwable e) {
+                sample.stop(methodMeters.error);
+                Counter.builder("dao.query.errors")
+                    .tag("dao", daoName)
+                    .tag("method", method.getName())
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+                throw e;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Streaming methods hand rows to a consumer instead of returning them, so count them on the way through
+        @SuppressWarnings("unchecked")
+        private LongAdder countStreamedRows(Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Consumer<?> consumer) {
+                    LongAdder rows = new LongAdder();
+                    Consumer<Object> delegate = (Consumer<Object>) consumer;
+                    args[i] = (Consumer<Object>) row -> {
+                        rows.increment();
+                        delegate.accept(row);
+                    };
+                    return rows;
+                }
+            }
+            return null;
+        }
+
+        private void recordRows(MethodMeters methodMeters, Object result, LongAdder streamedRows) {
+            if (methodMeters.rows == null) {
+                return;
+            }
+            if (streamedRows != null) {
+                methodMeters.rows.record(streamedRows.sum());
+            } else if (result instanceof Collection<?> collection) {
+                methodMeters.rows.record(collection.size());
+            } else {
+                methodMeters.rows.record(result == null ? 0 : 1);
+            }
+        }
+    }
+
+    private static final class MethodMeters {
+        private final Timer success;
+        private final Timer error;
+        private final DistributionSummary rows;
+
+        MethodMeters(MeterRegistry registry, String daoName, Method method) {
+            this.success = timer(registry, daoName, method, "success");
+            this.error = timer(registry, daoName, method, "error");
+            this.rows = returnsRows(method) ? DistributionSummary.builder("dao.query.rows")
+                .description("Rows returned per DAO call")
+                .baseUnit("rows")
+                .tag("dao", daoName)
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .register(registry) : null;
+        }
+
+        // Lists, single entities (Expense, User) and consumer-based streams; counts, totals and writes are skipped
+        private static boolean returnsRows(Method method) {
+            Class<?> returnType = method.getReturnType();
+            return Collection.class.isAssignableFrom(returnType)
+                || returnType.getPackageName().equals("org.example.model")
+                || Arrays.stream(method.getParameterTypes()).anyMatch(Consumer.class::isAssignableFrom);
+        }
+
+        private static Timer timer(MeterRegistry registry, String daoName, Method method, String outcome) {
+            return Timer.builder("dao.query")
+                .description("DAO method latency")
+                .tag("dao", daoName)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+    }
+}
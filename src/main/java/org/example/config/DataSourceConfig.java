@@ -1,28 +1,54 @@
 package org.example.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.zaxxer.hikari.HikariDataSource;
-
-import javax.sql.DataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
 
 @Configuration
 public class DataSourceConfig {
 
     @Bean
-    public DataSource dataSource(@Value("${spring.datasource.url}") String url,
+    public RequestScopedDataSource dataSource(@Value("${spring.datasource.url}") String url,
                                 @Value("${spring.datasource.username}") String username,
                                 @Value("${spring.datasource.password}") String password,
-                                @Value("${spring.datasource.driver-class-name:com.mysql.cj.jdbc.Driver}") String driver) {
+                                @Value("${spring.datasource.driver-class-name:com.mysql.cj.jdbc.Driver}") String driver,
+                                @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                                @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout,
+                                @Value("${spring.datasource.hikari.data-source-properties.cachePrepStmts:true}") boolean cachePrepStmts,
+                                @Value("${spring.datasource.hikari.data-source-properties.useServerPrepStmts:true}") boolean useServerPrepStmts,
+                                @Value("${spring.datasource.hikari.data-source-properties.prepStmtCacheSize:250}") int prepStmtCacheSize,
+                                @Value("${spring.datasource.hikari.data-source-properties.prepStmtCacheSqlLimit:2048}") int prepStmtCacheSqlLimit,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
         HikariDataSource dataSource = new HikariDataSource();
         dataSource.setJdbcUrl(url);
         dataSource.setUsername(username);
         dataSource.setPassword(password);
         dataSource.setDriverClassName(driver);
-        dataSource.setMaximumPoolSize(10);
-        dataSource.setConnectionTimeout(30000);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
         dataSource.setIdleTimeout(600000);
-        return dataSource;
+        // Publishes hikaricp_connections_* (active, idle, pending, acquire/usage time) tagged pool=expense-tracker
+        dataSource.setPoolName("expense-tracker");
+        meterRegistry.ifAvailable(registry ->
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        if (url.startsWith("jdbc:mysql:")) {
+            // Statements with a positive fetch size read through a server-side cursor instead of buffering every row
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+            // Lets the driver send a JDBC batch as multi-row INSERTs instead of one round trip per row
+            dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+            // Each connection keeps its prepared statements (server-side: parsed once by MySQL, then only
+            // parameters travel) keyed by SQL text, so repeated DAO queries skip the prepare round trip
+            dataSource.addDataSourceProperty("cachePrepStmts", String.valueOf(cachePrepStmts));
+            dataSource.addDataSourceProperty("useServerPrepStmts", String.valueOf(useServerPrepStmts));
+            dataSource.addDataSourceProperty("prepStmtCacheSize", String.valueOf(prepStmtCacheSize));
+            dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(prepStmtCacheSqlLimit));
+            // Answers getAutoCommit/setAutoCommit from the driver's own state instead of asking the server
+            dataSource.addDataSourceProperty("useLocalSessionState", "true");
+        }
+        return new RequestScopedDataSource(dataSource);
     }
 }
\ No newline at end of file
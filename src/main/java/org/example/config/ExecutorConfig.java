@@ -0,0 +1,92 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Runs the dashboard summary queries side by side. When the queue is full the request thread runs the
+    // query itself, so a burst slows down to sequential instead of being rejected.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService dashboardQueryExecutor(@Value("${expense.dashboard.query-threads:6}") int threads,
+                                                  @Value("${expense.dashboard.query-queue:100}") int queueCapacity) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            daemonThreads("dashboard-query-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Commits CSV import batches for all uploads. Each import chains its own batches, so a thread here is one
+    // import writing; when every thread is busy and the queue is full, the uploading request writes the batch itself.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService csvImportWriterExecutor(@Value("${expense.import.writer-threads:2}") int threads,
+                                                   @Value("${expense.import.writer-queue:16}") int queueCapacity) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            daemonThreads("csv-import-writer-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Verifies and hashes passwords. bcrypt is CPU-bound, so the pool defaults to one thread per core; once
+    // the queue is full further logins are rejected (and answered with 429) rather than run on request threads.
+    // Queue depth and activity are published as executor.* metrics with name=passwordHash.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashExecutor(@Value("${expense.auth.hash-threads:0}") int threads,
+                                                @Value("${expense.auth.hash-queue:64}") int queueCapacity,
+                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        LongAdder rejected = new LongAdder();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            daemonThreads("password-hash-"),
+            (runnable, pool) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("Password hashing queue is full");
+            });
+        meterRegistry.ifAvailable(registry -> {
+            new ExecutorServiceMetrics(executor, "passwordHash", Tags.empty()).bindTo(registry);
+            FunctionCounter.builder("executor.rejected", rejected, LongAdder::sum)
+                .tag("name", "passwordHash").register(registry);
+        });
+        return executor;
+    }
+
+    // Database writes that follow a password check (rehashed passwords, stored sessions), kept off the hash pool so
+    // its threads only hash. Like that pool it rejects once the queue is full, which answers the login with 429.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService authWriteExecutor(@Value("${expense.auth.write-threads:4}") int threads,
+                                             @Value("${expense.auth.write-queue:64}") int queueCapacity) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            daemonThreads("auth-write-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.config;
+
+import jakarta.servlet.*;
+
+import java.io.IOException;
+
+// Shares one pooled connection between all DAO calls made while handling a request
+public class RequestConnectionFilter implements Filter {
+
+    private final RequestScopedDataSource dataSource;
+
+    public RequestConnectionFilter(RequestScopedDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        try (RequestScopedDataSource.ConnectionScope scope = dataSource.openScope()) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connection pool wrapper that gives every DAO call on a thread the same pooled connection while a scope
+ * is open (one per HTTP request, see {@link RequestConnectionFilter}). The connection is borrowed on the
+ * first {@link #getConnection()} and only returned to the pool when the scope closes; DAOs still close
+ * what they are given, which just retires their handle. A page that runs several queries therefore pays
+ * for one checkout and keeps hitting the same per-connection prepared statement cache.
+ * <p>
+ * Outside a scope (startup migrations, background imports, dashboard query threads) every call borrows
+ * from the pool as before. DAO transactions run on the shared connection one after another and always
+ * end in commit or rollback, so no transaction spans two DAO calls.
+ */
+public class RequestScopedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final ThreadLocal<SharedConnection> current = new ThreadLocal<>();
+
+    public RequestScopedDataSource(DataSource pool) {
+        super(pool);
+    }
+
+    /**
+     * Opens a scope on the calling thread. A scope opened while another is active joins it, and only the
+     * outermost one returns the connection.
+     */
+    public ConnectionScope openScope() {
+        if (current.get() != null) {
+            return () -> { };
+        }
+        SharedConnection shared = new SharedConnection();
+        current.set(shared);
+        return () -> {
+            current.remove();
+            shared.release();
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        SharedConnection shared = current.get();
+        return shared != null ? shared.handle() : obtainTargetDataSource().getConnection();
+    }
+
+    // Closes the pool when the application context shuts down, as it would if the pool were the bean itself
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConnectionScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final class SharedConnection {
+
+        private Connection connection;
+
+        Connection handle() throws SQLException {
+            if (connection == null) {
+                connection = obtainTargetDataSource().getConnection();
+            }
+            Connection target = connection;
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed[0] = true;
+                        yield null;
+                    }
+                    case "isClosed" -> closed[0] || target.isClosed();
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (closed[0]) {
+                            throw new SQLException("Connection handle has been closed");
+                        }
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+        }
+
+        // The pool rolls back anything left uncommitted and resets autocommit when the connection comes back
+        void release() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error returning request connection to the pool", e);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+}
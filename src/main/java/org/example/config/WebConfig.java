@@ -1,5 +1,8 @@
 package org.example.config;
 
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,11 +11,21 @@ import org.springframework.context.annotation.Configuration;
 public class WebConfig {
 
     @Bean
-    public FilterRegistrationBean<AuthFilter> authFilter() {
+    public FilterRegistrationBean<AuthFilter> authFilter(SessionTokenService tokenService, SessionStoreService sessionStore) {
         FilterRegistrationBean<AuthFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new AuthFilter());
+        registrationBean.setFilter(new AuthFilter(tokenService, sessionStore));
         registrationBean.addUrlPatterns("/*");
         registrationBean.setOrder(1);
         return registrationBean;
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "expense.datasource.request-scoped-connection", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RequestConnectionFilter> requestConnectionFilter(RequestScopedDataSource dataSource) {
+        FilterRegistrationBean<RequestConnectionFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RequestConnectionFilter(dataSource));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(2);
+        return registrationBean;
+    }
 }
\ No newline at end of file
@@ -2,24 +2,47 @@ package org.example.controller;
 
 import org.example.model.User;
 import org.example.service.AuthService;
+import org.example.service.LoginThrottledException;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 @Controller
 public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     private final AuthService authService;
+    private final SessionTokenService tokenService;
+    private final SessionStoreService sessionStore;
+    private final Executor writeExecutor;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, SessionTokenService tokenService, SessionStoreService sessionStore,
+                          @Qualifier("authWriteExecutor") Executor writeExecutor) {
         this.authService = authService;
+        this.tokenService = tokenService;
+        this.sessionStore = sessionStore;
+        this.writeExecutor = writeExecutor;
     }
 
     @GetMapping("/login")
@@ -28,30 +51,94 @@ public class AuthController {
         return "login";
     }
 
+    // The password check runs on the hash pool and the request thread is released until it completes. Storing a
+    // session is a database write, so it runs on authWriteExecutor instead of holding a hash thread.
     @PostMapping("/login")
-    public String login(@RequestParam String username, 
-                       @RequestParam String password,
-                       HttpSession session, Model model) {
+    public CompletableFuture<String> login(@RequestParam String username, 
+                                           @RequestParam String password,
+                                           HttpSession session, Model model,
+                                           HttpServletRequest request, HttpServletResponse response) {
         logger.info("Login attempt for username: {}", username);
+        boolean secure = request.isSecure();
         
-        User user = authService.authenticate(username, password);
-        if (user != null) {
-            logger.info("Authentication successful for user: {} (ID: {}, Role: {})", username, user.getId(), user.getRole());
-            session.setAttribute("userId", user.getId());
-            session.setAttribute("userRole", user.getRole());
-            session.setAttribute("username", user.getUsername());
-            return "redirect:/expenses";
+        CompletableFuture<SignedIn> outcome = authService.authenticateAsync(username, password).thenCompose(this::signIn);
+        return outcome.handle((signedIn, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof LoginThrottledException)) {
+                    throw new CompletionException(cause);
+                }
+                logger.warn("Login throttled for username: {}", username);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                model.addAttribute("error", "Too many sign-in attempts right now, please try again in a moment");
+                return "login";
+            }
+            if (signedIn != null) {
+                User user = signedIn.user();
+                logger.info("Authentication successful for user: {} (ID: {}, Role: {})", username, user.getId(), user.getRole());
+                if (tokenService.isEnabled()) {
+                    setCookie(response, SessionTokenService.COOKIE_NAME, tokenService.issue(user), tokenService.getTtl(), secure);
+                } else if (sessionStore.isEnabled()) {
+                    setCookie(response, SessionStoreService.COOKIE_NAME, signedIn.sessionId(), null, secure);
+                } else {
+                    session.setAttribute("userId", user.getId());
+                    session.setAttribute("userRole", user.getRole());
+                    session.setAttribute("username", user.getUsername());
+                }
+                return "redirect:/expenses";
+            }
+            
+            logger.warn("Authentication failed for username: {}", username);
+            model.addAttribute("error", "Invalid username or password");
+            return "login";
+        });
+    }
+
+    // Only the session store writes anything at sign-in; a full write queue is answered like a full hash queue
+    private CompletableFuture<SignedIn> signIn(User user) {
+        if (user == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (tokenService.isEnabled() || !sessionStore.isEnabled()) {
+            return CompletableFuture.completedFuture(new SignedIn(user, null));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> new SignedIn(user, sessionStore.create(user)), writeExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Login writes are saturated", e));
         }
-        
-        logger.warn("Authentication failed for username: {}", username);
-        model.addAttribute("error", "Invalid username or password");
-        return "login";
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
+    public String logout(HttpSession session, HttpServletRequest request, HttpServletResponse response,
+                         @CookieValue(name = SessionStoreService.COOKIE_NAME, required = false) String sessionId) {
         logger.info("User logging out");
-        session.invalidate();
+        if (tokenService.isEnabled()) {
+            setCookie(response, SessionTokenService.COOKIE_NAME, "", Duration.ZERO, request.isSecure());
+        } else if (sessionStore.isEnabled()) {
+            sessionStore.invalidate(sessionId);
+            setCookie(response, SessionStoreService.COOKIE_NAME, "", Duration.ZERO, request.isSecure());
+        } else if (session != null) {
+            session.invalidate();
+        }
         return "redirect:/login";
     }
-}
\ No newline at end of file
+
+    // A null maxAge makes a browser-session cookie; the server decides when the session ends
+    private static void setCookie(HttpServletResponse response, String name, String value, Duration maxAge, boolean secure) {
+        ResponseCookie.ResponseCookieBuilder cookie = ResponseCookie.from(name, value)
+            .path("/")
+            .httpOnly(true)
+            .secure(secure)
+            .sameSite("Lax");
+        if (maxAge != null) {
+            cookie.maxAge(maxAge);
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.build().toString());
+    }
+
+    // An authenticated user, with the stored session's ID when the session store is in use
+    private record SignedIn(User user, String sessionId) {
+    }
+}
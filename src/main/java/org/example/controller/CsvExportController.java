@@ -3,18 +3,27 @@ package org.example.controller;
 import jakarta.servlet.http.HttpSession;
 import org.example.service.CsvExportService;
 import org.example.util.SessionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 @Controller
 public class CsvExportController {
     
+    private static final Logger logger = LoggerFactory.getLogger(CsvExportController.class);
     private final CsvExportService csvExportService;
     
     public CsvExportController(CsvExportService csvExportService) {
@@ -22,7 +31,7 @@ public class CsvExportController {
     }
     
     @GetMapping("/expenses/export")
-    public ResponseEntity<String> exportExpensesToCsv(
+    public ResponseEntity<StreamingResponseBody> exportExpensesToCsv(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
@@ -33,19 +42,30 @@ public class CsvExportController {
             return ResponseEntity.status(401).build();
         }
         
+        LocalDate start;
+        LocalDate end;
         try {
-            LocalDate start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate) : null;
-            LocalDate end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate) : null;
-            
-            String csv = csvExportService.exportFilteredToCsvForUser(start, end, category, userId);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "expenses.csv");
-            
-            return ResponseEntity.ok().headers(headers).body(csv);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate) : null;
+            end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         }
+
+        // Rows are written straight to the response while the query cursor advances
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                csvExportService.writeFilteredCsvForUser(start, end, category, userId, writer);
+            } catch (RuntimeException e) {
+                logger.error("CSV export failed for user {}: {}", userId, e.getMessage(), e);
+                throw e;
+            }
+        };
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "expenses.csv");
+        
+        return ResponseEntity.ok().headers(headers).body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.example.service.CsvImportService;
+import org.example.util.SessionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+public class CsvImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvImportController.class);
+    private final CsvImportService csvImportService;
+
+    public CsvImportController(CsvImportService csvImportService) {
+        this.csvImportService = csvImportService;
+    }
+
+    // Reads the raw request body rather than a multipart upload, so parsing starts with the first bytes received
+    @PostMapping(value = "/api/expenses/import", consumes = "text/csv")
+    public ResponseEntity<CsvImportService.ImportReport> importExpensesFromCsv(HttpServletRequest request,
+                                                                               HttpSession session) {
+        ResponseEntity<CsvImportService.ImportReport> validationResponse = SessionHelper.validateSession(session);
+        if (validationResponse != null) return validationResponse;
+
+        Long userId = SessionHelper.getUserId(session);
+        try (Reader reader = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            CsvImportService.ImportReport report = csvImportService.importCsv(reader, userId);
+            return report.failure() == null ? ResponseEntity.ok(report) : ResponseEntity.internalServerError().body(report);
+        } catch (IllegalArgumentException | IOException e) {
+            logger.warn("Rejected CSV import for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,23 +1,33 @@
 package org.example.controller;
 
 import jakarta.servlet.http.HttpSession;
-import org.example.service.DashboardService;
+import org.example.service.DashboardCacheService;
+import org.example.service.DashboardCacheService.UserDashboard;
 import org.example.util.SessionHelper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.function.Function;
 
 @Controller
 public class DashboardController {
     
-    private final DashboardService dashboardService;
+    // Browsers keep the response but revalidate it with If-None-Match on every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
-    public DashboardController(DashboardService dashboardService) {
-        this.dashboardService = dashboardService;
+    private final DashboardCacheService dashboardCache;
+
+    public DashboardController(DashboardCacheService dashboardCache) {
+        this.dashboardCache = dashboardCache;
     }
 
     @GetMapping("/dashboard")
@@ -27,28 +37,63 @@ public class DashboardController {
             return "redirect:/login";
         }
         
-        model.addAttribute("totalSpending", dashboardService.getTotalSpendingForUser(userId));
-        model.addAttribute("totalExpenses", dashboardService.getTotalExpenseCountForUser(userId));
+        UserDashboard dashboard = dashboardCache.getDashboard(userId);
+        model.addAttribute("totalSpending", dashboard.totalSpending());
+        model.addAttribute("totalExpenses", dashboard.totalExpenses());
         return "dashboard";
     }
 
+    // Everything the dashboard shows in one response, so the page needs a single round trip
+    @GetMapping("/api/dashboard/summary")
+    @ResponseBody
+    public ResponseEntity<DashboardSummary> getSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpSession session) {
+        return dashboardData(session, ifNoneMatch, DashboardSummary::of);
+    }
+
     @GetMapping("/api/dashboard/category-data")
     @ResponseBody
-    public Map<String, BigDecimal> getCategoryData(HttpSession session) {
-        Long userId = SessionHelper.getUserId(session);
-        if (userId == null) {
-            return Map.of();
-        }
-        return dashboardService.getSpendingByCategoryForUser(userId);
+    public ResponseEntity<Map<String, BigDecimal>> getCategoryData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpSession session) {
+        return dashboardData(session, ifNoneMatch, UserDashboard::spendingByCategory);
     }
 
     @GetMapping("/api/dashboard/monthly-data")
     @ResponseBody
-    public Map<String, BigDecimal> getMonthlyData(HttpSession session) {
+    public ResponseEntity<Map<String, BigDecimal>> getMonthlyData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpSession session) {
+        return dashboardData(session, ifNoneMatch, UserDashboard::spendingByMonth);
+    }
+
+    // An unchanged dashboard is answered with 304 from the cached snapshot alone
+    private <T> ResponseEntity<T> dashboardData(HttpSession session, String ifNoneMatch,
+                                                Function<UserDashboard, T> data) {
         Long userId = SessionHelper.getUserId(session);
         if (userId == null) {
-            return Map.of();
+            return ResponseEntity.ok(data.apply(UserDashboard.EMPTY));
+        }
+        String eTag = dashboardCache.currentETag(userId);
+        if (dashboardCache.isNotModified(eTag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .build();
+        }
+        UserDashboard dashboard = dashboardCache.getDashboard(userId);
+        return ResponseEntity.ok()
+            .eTag(dashboard.eTag())
+            .cacheControl(REVALIDATE)
+            .body(data.apply(dashboard));
+    }
+
+    public record DashboardSummary(BigDecimal totalSpending, long totalExpenses,
+                                   Map<String, BigDecimal> spendingByCategory, Map<String, BigDecimal> spendingByMonth) {
+        static DashboardSummary of(UserDashboard dashboard) {
+            return new DashboardSummary(dashboard.totalSpending(), dashboard.totalExpenses(),
+                dashboard.spendingByCategory(), dashboard.spendingByMonth());
         }
-        return dashboardService.getSpendingByMonthForUser(userId);
     }
-}
\ No newline at end of file
+}
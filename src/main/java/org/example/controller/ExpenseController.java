@@ -1,5 +1,6 @@
 package org.example.controller;
 
+import org.example.dao.ExpenseQuery;
 import org.example.model.Expense;
 import org.example.service.ExpenseCrudService;
 import org.example.service.ExpenseFilterService;
@@ -13,6 +14,7 @@ import jakarta.servlet.http.HttpSession;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.web.util.HtmlUtils;
 import org.slf4j.Logger;
@@ -23,6 +25,7 @@ import org.slf4j.LoggerFactory;
 public class ExpenseController {
     
     private static final Logger logger = LoggerFactory.getLogger(ExpenseController.class);
+    static final int MAX_BULK_EXPENSES = 10000;
     private final ExpenseCrudService crudService;
     private final ExpenseFilterService filterService;
     private final ExpenseSortService sortService;
@@ -90,6 +93,46 @@ public class ExpenseController {
         }
     }
     
+    // All-or-nothing: one invalid entry rejects the whole request before anything is written
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> createExpenses(@RequestBody List<Expense> expenses, HttpSession session) {
+        try {
+            ResponseEntity<List<Long>> validationResponse = SessionHelper.validateSession(session);
+            if (validationResponse != null) return validationResponse;
+            
+            if (expenses == null || expenses.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (expenses.size() > MAX_BULK_EXPENSES) {
+                return ResponseEntity.status(413).build();
+            }
+            
+            Long userId = SessionHelper.getUserId(session);
+            List<Expense> cleanExpenses = new ArrayList<>(expenses.size());
+            for (Expense expense : expenses) {
+                if (expense == null || !isValidExpense(expense)) {
+                    return ResponseEntity.badRequest().build();
+                }
+                cleanExpenses.add(new Expense(
+                    HtmlUtils.htmlEscape(expense.getDescription()),
+                    expense.getAmount(),
+                    expense.getCategory(),
+                    expense.getDate(),
+                    userId
+                ));
+            }
+            
+            crudService.saveExpenses(cleanExpenses);
+            return ResponseEntity.status(201).body(cleanExpenses.stream().map(Expense::getId).toList());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk expense request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Failed to create {} expenses: {}", expenses != null ? expenses.size() : 0, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Expense> getExpenseById(@PathVariable Long id, HttpSession session) {
         try {
@@ -184,9 +227,7 @@ public class ExpenseController {
                 return ResponseEntity.badRequest().build();
             }
             Long userId = SessionHelper.getUserId(session);
-            for (int i = 0; i < count; i++) {
-                crudService.addRandomExpenseForUser(userId);
-            }
+            crudService.addMultipleRandomExpensesForUser(userId, count);
             return ResponseEntity.status(201).build();
         } catch (Exception e) {
             logger.error("Failed to add {} random expenses: {}", count, e.getMessage(), e);
@@ -227,17 +268,60 @@ public class ExpenseController {
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<Expense>> searchExpenses(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String description,
+            HttpSession session) {
+        try {
+            ResponseEntity<List<Expense>> validationResponse = SessionHelper.validateSession(session);
+            if (validationResponse != null) return validationResponse;
+            
+            Long userId = SessionHelper.getUserId(session);
+            LocalDate start = startDate != null ? LocalDate.parse(startDate) : null;
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : null;
+            ExpenseQuery query = ExpenseQuery.forUser(userId)
+                .withDateRange(start, end)
+                .withAmountRange(minAmount, maxAmount)
+                .withDescriptionContaining(description);
+            if (category != null && !category.isEmpty()) {
+                query = query.withCategories(filterService.resolveCategories(category));
+            }
+            return ResponseEntity.ok(filterService.getFilteredExpenses(query));
+        } catch (Exception e) {
+            logger.error("Failed to search expenses: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/page")
     public ResponseEntity<ExpensePaginationService.PageResult<Expense>> getExpensesPage(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             HttpSession session) {
         try {
             ResponseEntity<ExpensePaginationService.PageResult<Expense>> validationResponse = SessionHelper.validateSession(session);
             if (validationResponse != null) return validationResponse;
             
             Long userId = SessionHelper.getUserId(session);
+            // Cursor parameters switch to keyset pagination; an empty "after" starts from the newest expense
+            if (before != null && !before.isEmpty()) {
+                return ResponseEntity.ok(paginationService.getExpensesPageBefore(before, size, userId, includeTotal));
+            }
+            if (after != null) {
+                return ResponseEntity.ok(paginationService.getExpensesPageAfter(after, size, userId, includeTotal));
+            }
             return ResponseEntity.ok(paginationService.getExpensesPageByUserId(page, size, userId));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid expenses page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Failed to get expenses page: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -1,10 +1,12 @@
 package org.example.controller;
 
 import jakarta.servlet.http.HttpSession;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
+import org.example.dao.ExpenseTotals;
 import org.example.dao.UserDAO;
 import org.example.service.ExpenseCrudService;
 import org.example.service.ExpenseFilterService;
-import org.example.service.ExpenseSortService;
 import org.example.service.ExpensePaginationService;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
@@ -26,17 +28,15 @@ public class WebExpenseController {
     private static final Logger logger = LoggerFactory.getLogger(WebExpenseController.class);
     private final ExpenseCrudService crudService;
     private final ExpenseFilterService filterService;
-    private final ExpenseSortService sortService;
     private final ExpensePaginationService paginationService;
     private final ExpenseController expenseController;
     private final UserDAO userDAO;
 
     public WebExpenseController(ExpenseCrudService crudService, ExpenseFilterService filterService,
-                                ExpenseSortService sortService, ExpensePaginationService paginationService,
+                                ExpensePaginationService paginationService,
                                 ExpenseController expenseController, UserDAO userDAO) {
         this.crudService = crudService;
         this.filterService = filterService;
-        this.sortService = sortService;
         this.paginationService = paginationService;
         this.expenseController = expenseController;
         this.userDAO = userDAO;
@@ -63,20 +63,16 @@ public class WebExpenseController {
         }
         
         try {
-            var allExpenses = SessionHelper.isAdmin(session) ? 
-                getAllExpenses(startDate, endDate, category, sortBy, filterUserId) : 
-                getAllExpensesByUserId(startDate, endDate, category, sortBy, userId);
-            logger.info("Found {} expenses for user {} (admin: {})", allExpenses.size(), userId, SessionHelper.isAdmin(session));
+            boolean isAdmin = SessionHelper.isAdmin(session);
+            ExpenseQuery query = buildListQuery(startDate, endDate, category, isAdmin ? parseUserId(filterUserId) : userId);
+            ExpenseTotals totals = crudService.getTotals(query);
+            logger.info("Found {} expenses for user {} (admin: {})", totals.count(), userId, isAdmin);
 
-            // Apply pagination to filtered results
-            ExpensePaginationService.PageResult<Expense> pageResult = paginationService.getPageFromList(allExpenses, page, size);
-            
-            BigDecimal totalAmount = allExpenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            ExpensePaginationService.PageResult<Expense> pageResult = paginationService.getExpensesPage(
+                    query, ExpenseSortOrder.fromString(sortBy), page, size, totals.count());
                     
             model.addAttribute("expenses", pageResult.content());
-            model.addAttribute("totalAmount", totalAmount);
+            model.addAttribute("totalAmount", totals.amount());
             model.addAttribute("pageResult", pageResult);
             model.addAttribute("isPaginated", true);
             model.addAttribute("startDate", startDate);
@@ -88,7 +84,7 @@ public class WebExpenseController {
             model.addAttribute("size", size);
             model.addAttribute("categories", ExpenseCategory.values());
             model.addAttribute("isAdmin", SessionHelper.isAdmin(session));
-            model.addAttribute("username", session.getAttribute("username"));
+            model.addAttribute("username", SessionHelper.getUsername(session));
             
             if (SessionHelper.isAdmin(session)) {
                 model.addAttribute("users", userDAO.findAll());
@@ -103,47 +99,14 @@ public class WebExpenseController {
         }
     }
 
-    private List<Expense> getAllExpensesByUserId(String startDate, String endDate, String category, String sortBy, Long userId) {
+    private ExpenseQuery buildListQuery(String startDate, String endDate, String category, Long userId) {
         LocalDate start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate) : null;
         LocalDate end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate) : null;
-
-        List<Expense> allExpenses;
-        if (start != null || end != null || (category != null && !category.isEmpty())) {
-            allExpenses = filterService.getFilteredExpensesByUserId(start, end, category, userId);
-        } else {
-            allExpenses = crudService.getAllExpensesByUserId(userId);
-        }
-
-        if (sortBy != null && !sortBy.trim().isEmpty()) {
-            allExpenses = sortService.sortExpenses(allExpenses, sortBy.trim());
-        }
-        return allExpenses;
+        return filterService.buildQuery(start, end, category, userId);
     }
-    
-    private List<Expense> getAllExpenses(String startDate, String endDate, String category, String sortBy, String filterUserId) {
-        LocalDate start = (startDate != null && !startDate.isEmpty()) ? LocalDate.parse(startDate) : null;
-        LocalDate end = (endDate != null && !endDate.isEmpty()) ? LocalDate.parse(endDate) : null;
 
-        List<Expense> allExpenses;
-        if (filterUserId != null && !filterUserId.isEmpty()) {
-            Long userId = Long.parseLong(filterUserId);
-            if (start != null || end != null || (category != null && !category.isEmpty())) {
-                allExpenses = filterService.getFilteredExpensesByUserId(start, end, category, userId);
-            } else {
-                allExpenses = crudService.getAllExpensesByUserId(userId);
-            }
-        } else {
-            if (start != null || end != null || (category != null && !category.isEmpty())) {
-                allExpenses = filterService.getFilteredExpenses(start, end, category);
-            } else {
-                allExpenses = crudService.getAllExpenses();
-            }
-        }
-
-        if (sortBy != null && !sortBy.trim().isEmpty()) {
-            allExpenses = sortService.sortExpenses(allExpenses, sortBy.trim());
-        }
-        return allExpenses;
+    private Long parseUserId(String filterUserId) {
+        return (filterUserId != null && !filterUserId.isEmpty()) ? Long.parseLong(filterUserId) : null;
     }
 
     @GetMapping("/expenses/add")
@@ -283,12 +246,13 @@ public class WebExpenseController {
     @GetMapping("/test")
     public String test(Model model, HttpSession session) {
         logger.info("Test endpoint accessed");
-        logger.info("Session ID: {}", session.getId());
-        logger.info("Session userId: {}", session.getAttribute("userId"));
+        String sessionId = session != null ? session.getId() : "none (sessionless auth)";
+        logger.info("Session ID: {}", sessionId);
+        logger.info("Session userId: {}", SessionHelper.getUserId(session));
         
         model.addAttribute("message", "Test page works!");
-        model.addAttribute("sessionId", session.getId());
-        model.addAttribute("userId", session.getAttribute("userId"));
+        model.addAttribute("sessionId", sessionId);
+        model.addAttribute("userId", SessionHelper.getUserId(session));
         return "test";
     }
 
@@ -349,32 +313,19 @@ public class WebExpenseController {
             return "redirect:/login";
         }
         
-        for (int i = 0; i < 30; i++) {
-            crudService.addRandomExpenseForUser(userId);
-        }
+        crudService.addMultipleRandomExpensesForUser(userId, 30);
         
         // Go to the last page that has the maximum number of items (size)
-        var allExpenses = getAllExpensesByUserId(startDate, endDate, category, sortBy, userId);
-        int totalPages = (int) Math.ceil((double) allExpenses.size() / size);
+        long total = crudService.countExpenses(buildListQuery(startDate, endDate, category, userId));
+        int totalPages = (int) Math.ceil((double) total / size);
         int targetPage = Math.max(0, totalPages - 2); // Go to second-to-last page to show full page
         
         return "redirect:/expenses?" + buildQueryString(startDate, endDate, category, sortBy, targetPage, size);
     }
 
     private int findExpensePage(Expense expense, String startDate, String endDate, String categoryFilter, String sortBy, int size, Long userId) {
-        var allExpenses = getAllExpensesByUserId(startDate, endDate, categoryFilter, sortBy, userId);
-
-        // Find the index of the expense
-        int expenseIndex = -1;
-        for (int i = 0; i < allExpenses.size(); i++) {
-            if (allExpenses.get(i).getId().equals(expense.getId())) {
-                expenseIndex = i;
-                break;
-            }
-        }
-
-        // Calculate the page number (0-based)
-        return expenseIndex >= 0 ? expenseIndex / size : 0;
+        ExpenseQuery query = buildListQuery(startDate, endDate, categoryFilter, userId);
+        return paginationService.findPageOf(expense, query, ExpenseSortOrder.fromString(sortBy), size);
     }
 
     private String buildQueryString(String startDate, String endDate, String category, String sortBy, int page, int size) {
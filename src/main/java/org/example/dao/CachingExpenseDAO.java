@@ -0,0 +1,262 @@
+package org.example.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.model.Expense;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of {@link ExpenseDAOImpl} for {@link #findByIdAndUserId}, the lookup behind
+ * the edit form and {@code GET /api/expenses/{id}}. Entries are keyed by user and ID, bounded by
+ * {@code expense.cache.max-size} and expire {@code expense.cache.ttl-seconds} after loading. Every write
+ * through this DAO evicts the entries it touches once the delegate returns. Missing expenses are not cached.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics tagged {@code cache=expenses}.
+ * Set {@code expense.cache.enabled=false} to inject {@link ExpenseDAOImpl} directly.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "expense.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingExpenseDAO implements ExpenseDAO {
+
+    private final ExpenseDAO delegate;
+    private final Cache<ExpenseKey, Expense> cache;
+
+    @Autowired
+    public CachingExpenseDAO(@Qualifier("expenseDAOImpl") ExpenseDAO delegate,
+                             @Value("${expense.cache.max-size:10000}") long maxSize,
+                             @Value("${expense.cache.ttl-seconds:600}") long ttlSeconds,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this(delegate, maxSize, Duration.ofSeconds(ttlSeconds), Ticker.systemTicker());
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "expenses"));
+    }
+
+    CachingExpenseDAO(ExpenseDAO delegate, long maxSize, Duration ttl, Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, maxSize))
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    }
+
+    // Callers edit the returned expense before calling update, so the cache never hands out its own instance
+    @Override
+    public Expense findByIdAndUserId(Long id, Long userId) {
+        Expense cached = cache.get(new ExpenseKey(userId, id), key -> delegate.findByIdAndUserId(id, userId));
+        return cached == null ? null : copyOf(cached);
+    }
+
+    @Override
+    public void save(Expense expense) {
+        try {
+            delegate.save(expense);
+        } finally {
+            evict(expense);
+        }
+    }
+
+    @Override
+    public void saveAll(List<Expense> expenses) {
+        try {
+            delegate.saveAll(expenses);
+        } finally {
+            expenses.forEach(this::evict);
+        }
+    }
+
+    @Override
+    public void update(Expense expense) {
+        try {
+            delegate.update(expense);
+        } finally {
+            evict(expense);
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            cache.asMap().keySet().removeIf(key -> key.id().equals(id));
+        }
+    }
+
+    @Override
+    public void deleteByIdAndUserId(Long id, Long userId) {
+        try {
+            delegate.deleteByIdAndUserId(id, userId);
+        } finally {
+            cache.invalidate(new ExpenseKey(userId, id));
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        try {
+            delegate.deleteAll();
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteAllByUserId(Long userId) {
+        try {
+            delegate.deleteAllByUserId(userId);
+        } finally {
+            cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        }
+    }
+
+    // Ownerless expenses are written as the admin user's (ExpenseDAOImpl.ownerOf); drop that ID for every user
+    private void evict(Expense expense) {
+        if (expense.getId() == null) {
+            return;
+        }
+        if (expense.getUserId() != null) {
+            cache.invalidate(new ExpenseKey(expense.getUserId(), expense.getId()));
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.id().equals(expense.getId()));
+        }
+    }
+
+    private static Expense copyOf(Expense expense) {
+        Expense copy = new Expense(expense.getDescription(), expense.getAmount(), expense.getCategory(),
+            expense.getDate(), expense.getUserId());
+        copy.setId(expense.getId());
+        return copy;
+    }
+
+    private record ExpenseKey(Long userId, Long id) {}
+
+    @Override
+    public List<Expense> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Expense> findAllByUserId(Long userId) {
+        return delegate.findAllByUserId(userId);
+    }
+
+    @Override
+    public Expense findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Expense> findByCategory(String category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Expense> findByCategoryAndUserId(String category, Long userId) {
+        return delegate.findByCategoryAndUserId(category, userId);
+    }
+
+    @Override
+    public List<Expense> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return delegate.findByDateRange(startDate, endDate);
+    }
+
+    @Override
+    public List<Expense> findByDateRangeAndUserId(LocalDate startDate, LocalDate endDate, Long userId) {
+        return delegate.findByDateRangeAndUserId(startDate, endDate, userId);
+    }
+
+    @Override
+    public List<Expense> findPage(int page, int size) {
+        return delegate.findPage(page, size);
+    }
+
+    @Override
+    public List<Expense> findPageByUserId(int page, int size, Long userId) {
+        return delegate.findPageByUserId(page, size, userId);
+    }
+
+    @Override
+    public List<Expense> findPageByUserIdAfter(Long userId, ExpenseCursor after, int size) {
+        return delegate.findPageByUserIdAfter(userId, after, size);
+    }
+
+    @Override
+    public List<Expense> findPageByUserIdBefore(Long userId, ExpenseCursor before, int size) {
+        return delegate.findPageByUserIdBefore(userId, before, size);
+    }
+
+    @Override
+    public long countAll() {
+        return delegate.countAll();
+    }
+
+    @Override
+    public long countAllByUserId(Long userId) {
+        return delegate.countAllByUserId(userId);
+    }
+
+    @Override
+    public List<Expense> findByQuery(ExpenseQuery query) {
+        return delegate.findByQuery(query);
+    }
+
+    @Override
+    public void streamByQuery(ExpenseQuery query, Consumer<Expense> consumer) {
+        delegate.streamByQuery(query, consumer);
+    }
+
+    @Override
+    public long countByQuery(ExpenseQuery query) {
+        return delegate.countByQuery(query);
+    }
+
+    @Override
+    public long countBefore(ExpenseQuery query, ExpenseSortOrder sortOrder, Expense expense) {
+        return delegate.countBefore(query, sortOrder, expense);
+    }
+
+    @Override
+    public List<Expense> findPageByQuery(ExpenseQuery query, ExpenseSortOrder sortOrder, int page, int size) {
+        return delegate.findPageByQuery(query, sortOrder, page, size);
+    }
+
+    @Override
+    public ExpenseTotals totalsByQuery(ExpenseQuery query) {
+        return delegate.totalsByQuery(query);
+    }
+
+    @Override
+    public ExpenseTotals totalsByUserId(Long userId) {
+        return delegate.totalsByUserId(userId);
+    }
+
+    @Override
+    public List<CategoryTotal> sumByCategory(Long userId) {
+        return delegate.sumByCategory(userId);
+    }
+
+    @Override
+    public List<MonthlyTotal> sumByMonth(Long userId) {
+        return delegate.sumByMonth(userId);
+    }
+
+    @Override
+    public int rebuildSummaries() {
+        return delegate.rebuildSummaries();
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.dao;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory directory of all users in front of {@link UserDAOImpl}, indexed by ID and by username, so logins and
+ * the admin user list are served without touching the users table. The directory is loaded on first use and
+ * reloaded every {@code expense.user-cache.refresh-seconds} to pick up users created or changed on other nodes;
+ * writes through this DAO are applied to a copy of it row by row. Loads and row updates are published one at a time
+ * under a lock, so a load that started before a write can never replace the directory holding that write.
+ * A username that is not in the directory is still looked up in the database.
+ * {@code users.directory.size} and {@code users.directory.staleness} (time since the last load) are published
+ * as gauges. Set {@code expense.user-cache.enabled=false} to inject {@link UserDAOImpl} directly.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "expense.user-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingUserDAO implements UserDAO {
+
+    private final UserDAO delegate;
+    private final Ticker ticker;
+    // Orders loads and row updates; a lock rather than synchronized, so a virtual thread waiting on the users query
+    // does not pin its carrier
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile Directory directory;
+
+    @Autowired
+    public CachingUserDAO(@Qualifier("userDAOImpl") UserDAO delegate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(delegate, Ticker.systemTicker());
+        meterRegistry.ifAvailable(this::registerMetrics);
+    }
+
+    CachingUserDAO(UserDAO delegate, Ticker ticker) {
+        this.delegate = delegate;
+        this.ticker = ticker;
+    }
+
+    // Callers may change the returned user (a rehashed password, say), so the directory never hands out its own
+    @Override
+    public User findByUsername(String username) {
+        User cached = directory().byUsername().get(username);
+        return cached != null ? copyOf(cached) : delegate.findByUsername(username);
+    }
+
+    @Override
+    public User findById(Long id) {
+        User cached = directory().byId().get(id);
+        return cached != null ? copyOf(cached) : delegate.findById(id);
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        // The insert leaves the role to the column default
+        User row = copyOf(saved);
+        row.setRole(UserRole.USER);
+        apply(current -> row);
+        return saved;
+    }
+
+    @Override
+    public void updatePassword(Long id, String password) {
+        delegate.updatePassword(id, password);
+        // A user the directory does not hold yet is read by the next refresh
+        apply(current -> {
+            User cached = current.byId().get(id);
+            if (cached == null) {
+                return null;
+            }
+            User row = copyOf(cached);
+            row.setPassword(password);
+            return row;
+        });
+    }
+
+    // Ordered by username, as UserDAOImpl returns them
+    @Override
+    public List<User> findAll() {
+        return directory().all().stream().map(CachingUserDAO::copyOf).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${expense.user-cache.refresh-seconds:60}",
+        initialDelayString = "${expense.user-cache.refresh-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        publishLock.lock();
+        try {
+            long startedAt = ticker.read();
+            directory = Directory.of(delegate.findAll(), startedAt);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    int size() {
+        Directory current = directory;
+        return current == null ? 0 : current.all().size();
+    }
+
+    double stalenessNanos() {
+        Directory current = directory;
+        return current == null ? 0 : ticker.read() - current.loadedAtNanos();
+    }
+
+    private Directory directory() {
+        Directory current = directory;
+        if (current == null) {
+            publishLock.lock();
+            try {
+                if (directory == null) {
+                    refresh();
+                }
+                current = directory;
+            } finally {
+                publishLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // Replaces one row in a copy of the directory; one that is not loaded yet reads the row on its first load
+    private void apply(Function<Directory, User> changedRow) {
+        publishLock.lock();
+        try {
+            Directory current = directory;
+            User row = current == null ? null : changedRow.apply(current);
+            if (row != null) {
+                directory = current.with(row);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User(user.getUsername(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        Gauge.builder("users.directory.size", this, CachingUserDAO::size)
+            .description("Users held in the in-memory directory")
+            .register(registry);
+        TimeGauge.builder("users.directory.staleness", this, TimeUnit.NANOSECONDS, CachingUserDAO::stalenessNanos)
+            .description("Time since the user directory was last loaded")
+            .register(registry);
+    }
+
+    private record Directory(Map<Long, User> byId, Map<String, User> byUsername, List<User> all, long loadedAtNanos) {
+
+        static Directory of(List<User> users, long loadedAtNanos) {
+            Map<Long, User> byId = new HashMap<>(users.size() * 2);
+            Map<String, User> byUsername = new HashMap<>(users.size() * 2);
+            for (User user : users) {
+                byId.put(user.getId(), user);
+                byUsername.put(user.getUsername(), user);
+            }
+            return new Directory(Map.copyOf(byId), Map.copyOf(byUsername), List.copyOf(users), loadedAtNanos);
+        }
+
+        // Staleness still counts from the last full load, since rows changed on other nodes are only seen there
+        Directory with(User row) {
+            List<User> users = new ArrayList<>(all.size() + 1);
+            for (User user : all) {
+                if (!user.getId().equals(row.getId())) {
+                    users.add(user);
+                }
+            }
+            users.add(row);
+            users.sort(Comparator.comparing(User::getUsername, String.CASE_INSENSITIVE_ORDER));
+            return of(users, loadedAtNanos);
+        }
+    }
+}
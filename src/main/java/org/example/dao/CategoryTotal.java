@@ -0,0 +1,8 @@
+package org.example.dao;
+
+import org.example.model.ExpenseCategory;
+
+import java.math.BigDecimal;
+
+public record CategoryTotal(ExpenseCategory category, long count, BigDecimal amount) {
+}
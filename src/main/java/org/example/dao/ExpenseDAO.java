@@ -3,6 +3,7 @@ package org.example.dao;
 import org.example.model.Expense;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ExpenseDAO {
     List<Expense> findAll();
@@ -10,6 +11,7 @@ public interface ExpenseDAO {
     Expense findById(Long id);
     Expense findByIdAndUserId(Long id, Long userId);
     void save(Expense expense);
+    void saveAll(List<Expense> expenses);
     void update(Expense expense);
     void deleteById(Long id);
     void deleteByIdAndUserId(Long id, Long userId);
@@ -21,6 +23,20 @@ public interface ExpenseDAO {
     void deleteAllByUserId(Long userId);
     List<Expense> findPage(int page, int size);
     List<Expense> findPageByUserId(int page, int size, Long userId);
+    List<Expense> findPageByUserIdAfter(Long userId, ExpenseCursor after, int size);
+    List<Expense> findPageByUserIdBefore(Long userId, ExpenseCursor before, int size);
     long countAll();
     long countAllByUserId(Long userId);
+    List<Expense> findByQuery(ExpenseQuery query);
+    void streamByQuery(ExpenseQuery query, Consumer<Expense> consumer);
+    long countByQuery(ExpenseQuery query);
+    // Rows matching the query that sort before the expense, i.e. its 0-based position in the sorted listing
+    long countBefore(ExpenseQuery query, ExpenseSortOrder sortOrder, Expense expense);
+    List<Expense> findPageByQuery(ExpenseQuery query, ExpenseSortOrder sortOrder, int page, int size);
+    ExpenseTotals totalsByQuery(ExpenseQuery query);
+    // Read from the expense_summaries table; a null userId covers all users
+    ExpenseTotals totalsByUserId(Long userId);
+    List<CategoryTotal> sumByCategory(Long userId);
+    List<MonthlyTotal> sumByMonth(Long userId);
+    int rebuildSummaries();
 }
\ No newline at end of file
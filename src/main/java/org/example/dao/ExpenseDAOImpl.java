@@ -4,15 +4,24 @@ import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.example.service.ExpenseIdService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+// Writes take no JVM-wide lock: IDs come pre-reserved from ExpenseIdService and each write
+// is its own database transaction, so concurrent users only contend on the rows they touch
 @Repository
 public class ExpenseDAOImpl implements ExpenseDAO {
     
@@ -20,21 +29,32 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     DataSource dataSource;
 
     @Autowired
-    @Lazy
     ExpenseIdService expenseIdService;
-//The @Lazy annotation tells Spring to create a proxy for ExpenseIdService instead of initializing it immediately, breaking the circular dependency cycle during application startup.
+
+    @Value("${expense.stream.fetch-size:500}")
+    int streamFetchSize = 500;
+
+    @Value("${expense.batch.size:1000}")
+    int batchSize = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO expenses (id, amount, category, date, description, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SUMMARY_UPSERT_SQL =
+        "INSERT INTO expense_summaries (user_id, category, period_year, period_month, expense_count, total_amount) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE expense_count = expense_count + ?, total_amount = total_amount + ?";
 
     @Override
     public List<Expense> findAll() {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
-                expenses.add(mapResultSetToExpense(rs));
+                expenses.add(ExpenseRowMapper.map(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching expenses", e);
@@ -45,7 +65,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findAllByUserId(Long userId) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE user_id = ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE user_id = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -53,7 +73,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setLong(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -64,7 +84,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
 
     @Override
     public Expense findById(Long id) {
-        String sql = "SELECT * FROM expenses WHERE id = ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE id = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -72,7 +92,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setLong(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToExpense(rs);
+                    return ExpenseRowMapper.map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -83,7 +103,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
 
     @Override
     public Expense findByIdAndUserId(Long id, Long userId) {
-        String sql = "SELECT * FROM expenses WHERE id = ? AND user_id = ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE id = ? AND user_id = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -92,7 +112,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setLong(2, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToExpense(rs);
+                    return ExpenseRowMapper.map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -102,44 +122,109 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     }
 
     @Override
-    public synchronized void save(Expense expense) {
-        Long nextId = expense.getUserId() != null ? 
+    public void save(Expense expense) {
+        Long nextId = expense.getId() != null ? expense.getId() :
+            expense.getUserId() != null ? 
             expenseIdService.getNextAvailableIdForUser(expense.getUserId()) : 
             expenseIdService.getNextAvailableId();
-        String sql = "INSERT INTO expenses (id, amount, category, date, description, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+        long userId = ownerOf(expense);
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                    expense.setId(nextId);
+                    bindInsert(stmt, expense, userId);
+                    stmt.executeUpdate();
+                }
+                adjustSummary(conn, userId, expense.getCategoryDisplayName(), expense.getDate(), 1, expense.getAmount());
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving expense", e);
+        }
+    }
 
-            stmt.setLong(1, nextId);
-            expense.setId(nextId);
-            stmt.setBigDecimal(2, expense.getAmount());
-            stmt.setString(3, expense.getCategoryDisplayName());
-            stmt.setDate(4, Date.valueOf(expense.getDate()));
-            stmt.setString(5, expense.getDescription());
-            // Default to user_id = 1 (admin) if not set for backward compatibility
-            stmt.setLong(6, expense.getUserId() != null ? expense.getUserId() : 1L);
+    /**
+     * Inserts all expenses in one transaction using JDBC batches of {@code expense.batch.size} rows.
+     * Expenses without an ID get one from a single block reservation per user, and the summary table
+     * receives one upsert per touched (user, category, month) bucket rather than one per row.
+     */
+    @Override
+    public void saveAll(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        reserveMissingIds(expenses);
 
-            stmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                Map<SummaryKey, ExpenseTotals> deltas = new TreeMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                    int pending = 0;
+                    for (Expense expense : expenses) {
+                        long userId = ownerOf(expense);
+                        bindInsert(stmt, expense, userId);
+                        stmt.addBatch();
+                        deltas.merge(SummaryKey.of(userId, expense), new ExpenseTotals(1, expense.getAmount()), ExpenseTotals::plus);
+                        if (++pending == batchSize) {
+                            stmt.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SUMMARY_UPSERT_SQL)) {
+                    for (Map.Entry<SummaryKey, ExpenseTotals> delta : deltas.entrySet()) {
+                        SummaryKey key = delta.getKey();
+                        bindSummaryDelta(stmt, key.userId(), key.category(), key.month(),
+                            Math.toIntExact(delta.getValue().count()), delta.getValue().amount());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                return null;
+            });
         } catch (SQLException e) {
-            throw new RuntimeException("Error saving expense", e);
+            throw new RuntimeException("Error saving expenses in batch", e);
         }
     }
 
     @Override
-    public synchronized void update(Expense expense) {
-        String sql = "UPDATE expenses SET amount = ?, category = ?, date = ?, description = ? WHERE id = ?";
+    public void update(Expense expense) {
+        long userId = ownerOf(expense);
+        String sql = "UPDATE expenses SET amount = ?, category = ?, date = ?, description = ? WHERE id = ? AND user_id = ?";
         
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setBigDecimal(1, expense.getAmount());
-            stmt.setString(2, expense.getCategoryDisplayName());
-            stmt.setDate(3, Date.valueOf(expense.getDate()));
-            stmt.setString(4, expense.getDescription());
-            stmt.setLong(5, expense.getId());
-            
-            stmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                Expense previous = lockExpense(conn, expense.getId(), userId);
+                if (previous == null) {
+                    return null;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBigDecimal(1, expense.getAmount());
+                    stmt.setString(2, expense.getCategoryDisplayName());
+                    stmt.setDate(3, Date.valueOf(expense.getDate()));
+                    stmt.setString(4, expense.getDescription());
+                    stmt.setLong(5, expense.getId());
+                    stmt.setLong(6, userId);
+
+                    stmt.executeUpdate();
+                }
+                if (previous.getCategory() == expense.getCategory()
+                        && YearMonth.from(previous.getDate()).equals(YearMonth.from(expense.getDate()))) {
+                    adjustSummary(conn, userId, expense.getCategoryDisplayName(), expense.getDate(), 0,
+                        expense.getAmount().subtract(previous.getAmount()));
+                } else if (SummaryKey.of(userId, previous).compareTo(SummaryKey.of(userId, expense)) < 0) {
+                    adjustSummary(conn, userId, previous.getCategoryDisplayName(), previous.getDate(), -1, previous.getAmount().negate());
+                    adjustSummary(conn, userId, expense.getCategoryDisplayName(), expense.getDate(), 1, expense.getAmount());
+                } else {
+                    adjustSummary(conn, userId, expense.getCategoryDisplayName(), expense.getDate(), 1, expense.getAmount());
+                    adjustSummary(conn, userId, previous.getCategoryDisplayName(), previous.getDate(), -1, previous.getAmount().negate());
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error updating expense", e);
         }
@@ -147,13 +232,29 @@ public class ExpenseDAOImpl implements ExpenseDAO {
 
     @Override
     public void deleteById(Long id) {
+        String select = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE id = ? FOR UPDATE";
         String sql = "DELETE FROM expenses WHERE id = ?";
         
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, id);
-            stmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                List<Expense> previous = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setLong(1, id);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            previous.add(ExpenseRowMapper.map(rs));
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setLong(1, id);
+                    stmt.executeUpdate();
+                }
+                for (Expense expense : previous) {
+                    adjustSummary(conn, expense.getUserId(), expense.getCategoryDisplayName(), expense.getDate(), -1, expense.getAmount().negate());
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting expense", e);
         }
@@ -163,12 +264,20 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     public void deleteByIdAndUserId(Long id, Long userId) {
         String sql = "DELETE FROM expenses WHERE id = ? AND user_id = ?";
         
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, id);
-            stmt.setLong(2, userId);
-            stmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                Expense previous = lockExpense(conn, id, userId);
+                if (previous == null) {
+                    return null;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setLong(1, id);
+                    stmt.setLong(2, userId);
+                    stmt.executeUpdate();
+                }
+                adjustSummary(conn, userId, previous.getCategoryDisplayName(), previous.getDate(), -1, previous.getAmount().negate());
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting expense by user", e);
         }
@@ -177,15 +286,20 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findByCategory(String category) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE LOWER(category) = LOWER(?)";
+        // Resolve the name first so the column is compared as stored, which an index can serve
+        ExpenseCategory resolved = ExpenseCategory.lookup(category).orElse(null);
+        if (resolved == null) {
+            return expenses;
+        }
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE category = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, category);
+            stmt.setString(1, resolved.getDisplayName());
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -197,16 +311,20 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findByCategoryAndUserId(String category, Long userId) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE LOWER(category) = LOWER(?) AND user_id = ?";
+        ExpenseCategory resolved = ExpenseCategory.lookup(category).orElse(null);
+        if (resolved == null) {
+            return expenses;
+        }
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE category = ? AND user_id = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, category);
+            stmt.setString(1, resolved.getDisplayName());
             stmt.setLong(2, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -218,7 +336,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findByDateRange(LocalDate startDate, LocalDate endDate) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE date BETWEEN ? AND ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE date BETWEEN ? AND ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -227,7 +345,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setDate(2, Date.valueOf(endDate));
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -239,7 +357,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findByDateRangeAndUserId(LocalDate startDate, LocalDate endDate, Long userId) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE date BETWEEN ? AND ? AND user_id = ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE date BETWEEN ? AND ? AND user_id = ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -249,7 +367,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setLong(3, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -259,27 +377,36 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     }
 
     @Override
-    public synchronized void deleteAll() {
-        String sql = "DELETE FROM expenses";
-        
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.executeUpdate();
+    public void deleteAll() {
+        try {
+            inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM expenses")) {
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM expense_summaries")) {
+                    stmt.executeUpdate();
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting all expenses", e);
         }
     }
 
     @Override
-    public synchronized void deleteAllByUserId(Long userId) {
-        String sql = "DELETE FROM expenses WHERE user_id = ?";
-        
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, userId);
-            stmt.executeUpdate();
+    public void deleteAllByUserId(Long userId) {
+        try {
+            inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM expenses WHERE user_id = ?")) {
+                    stmt.setLong(1, userId);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM expense_summaries WHERE user_id = ?")) {
+                    stmt.setLong(1, userId);
+                    stmt.executeUpdate();
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting all expenses by user", e);
         }
@@ -288,7 +415,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findPage(int page, int size) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses ORDER BY date DESC, id DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses ORDER BY date DESC, id DESC LIMIT ? OFFSET ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -297,7 +424,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setInt(2, page * size);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -309,7 +436,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     @Override
     public List<Expense> findPageByUserId(int page, int size, Long userId) {
         List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT * FROM expenses WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ? OFFSET ?";
         
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -319,7 +446,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             stmt.setInt(3, page * size);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(ExpenseRowMapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -328,6 +455,61 @@ public class ExpenseDAOImpl implements ExpenseDAO {
         return expenses;
     }
 
+    @Override
+    public List<Expense> findPageByUserIdAfter(Long userId, ExpenseCursor after, int size) {
+        List<Expense> expenses = new ArrayList<>();
+        String sql = after == null ?
+            "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ?" :
+            "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE user_id = ? AND (date < ? OR (date = ? AND id < ?)) ORDER BY date DESC, id DESC LIMIT ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setLong(index++, userId);
+            if (after != null) {
+                stmt.setDate(index++, Date.valueOf(after.date()));
+                stmt.setDate(index++, Date.valueOf(after.date()));
+                stmt.setLong(index++, after.id());
+            }
+            stmt.setInt(index, size);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(ExpenseRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching expenses page after cursor", e);
+        }
+        return expenses;
+    }
+
+    @Override
+    public List<Expense> findPageByUserIdBefore(Long userId, ExpenseCursor before, int size) {
+        List<Expense> expenses = new ArrayList<>();
+        // Walk the (user_id, date, id) index upwards from the cursor, then flip back to display order
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE user_id = ? AND (date > ? OR (date = ? AND id > ?)) ORDER BY date ASC, id ASC LIMIT ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, userId);
+            stmt.setDate(2, Date.valueOf(before.date()));
+            stmt.setDate(3, Date.valueOf(before.date()));
+            stmt.setLong(4, before.id());
+            stmt.setInt(5, size);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(ExpenseRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching expenses page before cursor", e);
+        }
+        Collections.reverse(expenses);
+        return expenses;
+    }
+
     @Override
     public long countAll() {
         String sql = "SELECT COUNT(*) FROM expenses";
@@ -365,14 +547,445 @@ public class ExpenseDAOImpl implements ExpenseDAO {
         return 0;
     }
 
-    private Expense mapResultSetToExpense(ResultSet rs) throws SQLException {
-        Expense expense = new Expense();
-        expense.setId(rs.getLong("id"));
-        expense.setAmount(rs.getBigDecimal("amount"));
-        expense.setCategory(ExpenseCategory.fromString(rs.getString("category")));
-        expense.setDate(rs.getDate("date").toLocalDate());
-        expense.setDescription(rs.getString("description"));
-        expense.setUserId(rs.getLong("user_id"));
-        return expense;
+    @Override
+    public List<Expense> findByQuery(ExpenseQuery query) {
+        List<Expense> expenses = new ArrayList<>();
+        if (query.matchesNothing()) {
+            return expenses;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses" + buildWhereClause(query, params);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(ExpenseRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching expenses by query", e);
+        }
+        return expenses;
+    }
+
+    @Override
+    public void streamByQuery(ExpenseQuery query, Consumer<Expense> consumer) {
+        if (query.matchesNothing()) {
+            return;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses" + buildWhereClause(query, params) + " ORDER BY date DESC, id DESC";
+
+        // Forward-only cursor with a bounded fetch size so rows are handed over as they arrive
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(streamFetchSize);
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(ExpenseRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming expenses by query", e);
+        }
+    }
+
+    @Override
+    public long countByQuery(ExpenseQuery query) {
+        if (query.matchesNothing()) {
+            return 0;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM expenses" + buildWhereClause(query, params);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting expenses by query", e);
+        }
+        return 0;
+    }
+
+    /**
+     * One COUNT over the rows ahead of the expense in {@code ORDER BY sortOrder}. The sort key comparison is
+     * spelled out column by column, as in the keyset page queries, so it can be served from the user's index.
+     */
+    @Override
+    public long countBefore(ExpenseQuery query, ExpenseSortOrder sortOrder, Expense expense) {
+        if (query.matchesNothing()) {
+            return 0;
+        }
+        List<Object> params = new ArrayList<>();
+        String where = buildWhereClause(query, params);
+        String sql = "SELECT COUNT(*) FROM expenses" + (where.isEmpty() ? " WHERE " : where + " AND ")
+            + buildSortsBefore(sortOrder, expense, params);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting expenses before expense", e);
+        }
+        return 0;
+    }
+
+    @Override
+    public List<Expense> findPageByQuery(ExpenseQuery query, ExpenseSortOrder sortOrder, int page, int size) {
+        List<Expense> expenses = new ArrayList<>();
+        if (query.matchesNothing()) {
+            return expenses;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses" + buildWhereClause(query, params)
+            + " ORDER BY " + sortOrder.getOrderBy() + " LIMIT ? OFFSET ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            stmt.setInt(params.size() + 1, size);
+            stmt.setInt(params.size() + 2, page * size);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(ExpenseRowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching expenses page by query", e);
+        }
+        return expenses;
+    }
+
+    @Override
+    public ExpenseTotals totalsByQuery(ExpenseQuery query) {
+        if (query.matchesNothing()) {
+            return ExpenseTotals.EMPTY;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM expenses" + buildWhereClause(query, params);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ExpenseTotals(rs.getLong(1), rs.getBigDecimal(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing expenses by query", e);
+        }
+        return ExpenseTotals.EMPTY;
+    }
+
+    @Override
+    public ExpenseTotals totalsByUserId(Long userId) {
+        String sql = userId != null ?
+            "SELECT COALESCE(SUM(expense_count), 0), COALESCE(SUM(total_amount), 0) FROM expense_summaries WHERE user_id = ?" :
+            "SELECT COALESCE(SUM(expense_count), 0), COALESCE(SUM(total_amount), 0) FROM expense_summaries";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (userId != null) {
+                stmt.setLong(1, userId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ExpenseTotals(rs.getLong(1), rs.getBigDecimal(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading expense totals", e);
+        }
+        return ExpenseTotals.EMPTY;
+    }
+
+    @Override
+    public List<CategoryTotal> sumByCategory(Long userId) {
+        List<CategoryTotal> totals = new ArrayList<>();
+        String sql = userId != null ?
+            "SELECT category, SUM(expense_count), SUM(total_amount) FROM expense_summaries WHERE user_id = ? GROUP BY category" :
+            "SELECT category, SUM(expense_count), SUM(total_amount) FROM expense_summaries GROUP BY category";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (userId != null) {
+                stmt.setLong(1, userId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new CategoryTotal(ExpenseCategory.fromString(rs.getString(1)), rs.getLong(2), rs.getBigDecimal(3)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing expenses by category", e);
+        }
+        return totals;
+    }
+
+    @Override
+    public List<MonthlyTotal> sumByMonth(Long userId) {
+        List<MonthlyTotal> totals = new ArrayList<>();
+        String sql = userId != null ?
+            "SELECT period_year, period_month, SUM(expense_count), SUM(total_amount) FROM expense_summaries WHERE user_id = ? GROUP BY period_year, period_month ORDER BY period_year, period_month" :
+            "SELECT period_year, period_month, SUM(expense_count), SUM(total_amount) FROM expense_summaries GROUP BY period_year, period_month ORDER BY period_year, period_month";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (userId != null) {
+                stmt.setLong(1, userId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new MonthlyTotal(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getBigDecimal(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing expenses by month", e);
+        }
+        return totals;
+    }
+
+    /**
+     * Recomputes {@code expense_summaries} from the expenses table in one transaction.
+     * Returns the number of (user, category, month) buckets written.
+     */
+    @Override
+    public int rebuildSummaries() {
+        String insert = "INSERT INTO expense_summaries (user_id, category, period_year, period_month, expense_count, total_amount) " +
+                        "SELECT user_id, category, YEAR(date), MONTH(date), COUNT(*), SUM(amount) FROM expenses " +
+                        "GROUP BY user_id, category, YEAR(date), MONTH(date)";
+
+        try {
+            return inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM expense_summaries")) {
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                    return stmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error rebuilding expense summaries", e);
+        }
+    }
+
+    // user_id goes first so the clause lines up with indexes leading on user_id
+    private String buildWhereClause(ExpenseQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (query.userId() != null) {
+            conditions.add("user_id = ?");
+            params.add(query.userId());
+        }
+        if (query.startDate() != null) {
+            conditions.add("date >= ?");
+            params.add(Date.valueOf(query.startDate()));
+        }
+        if (query.endDate() != null) {
+            conditions.add("date <= ?");
+            params.add(Date.valueOf(query.endDate()));
+        }
+        if (query.categories() != null) {
+            // Categories are stored by display name (V2 migration normalized older spellings)
+            conditions.add("category IN (" + String.join(", ", Collections.nCopies(query.categories().size(), "?")) + ")");
+            query.categories().forEach(category -> params.add(category.getDisplayName()));
+        }
+        if (query.minAmount() != null) {
+            conditions.add("amount >= ?");
+            params.add(query.minAmount());
+        }
+        if (query.maxAmount() != null) {
+            conditions.add("amount <= ?");
+            params.add(query.maxAmount());
+        }
+        if (query.descriptionContains() != null) {
+            conditions.add("description LIKE ? ESCAPE '!'");
+            params.add("%" + escapeLike(query.descriptionContains()) + "%");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // (a < ? OR (a = ? AND (b < ? OR (b = ? AND c < ?)))) for the sort columns a, b, c
+    private String buildSortsBefore(ExpenseSortOrder sortOrder, Expense expense, List<Object> params) {
+        List<String> columns = sortOrder.getColumns();
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < columns.size() - 1; i++) {
+            String column = columns.get(i);
+            Object value = sortKeyOf(expense, column);
+            condition.append("(").append(column).append(" < ? OR (").append(column).append(" = ? AND ");
+            params.add(value);
+            params.add(value);
+        }
+        String last = columns.get(columns.size() - 1);
+        condition.append(last).append(" < ?");
+        params.add(sortKeyOf(expense, last));
+        condition.append("))".repeat(columns.size() - 1));
+        return condition.toString();
+    }
+
+    private Object sortKeyOf(Expense expense, String column) {
+        return switch (column) {
+            case "id" -> expense.getId();
+            case "user_id" -> ownerOf(expense);
+            case "description" -> expense.getDescription();
+            case "amount" -> expense.getAmount();
+            case "category" -> expense.getCategoryDisplayName();
+            case "date" -> Date.valueOf(expense.getDate());
+            default -> throw new IllegalArgumentException("Unknown sort column: " + column);
+        };
+    }
+
+    private void bindParameters(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            Object param = params.get(i);
+            if (param instanceof Long value) {
+                stmt.setLong(i + 1, value);
+            } else if (param instanceof Date value) {
+                stmt.setDate(i + 1, value);
+            } else if (param instanceof BigDecimal value) {
+                stmt.setBigDecimal(i + 1, value);
+            } else {
+                stmt.setString(i + 1, (String) param);
+            }
+        }
+    }
+
+    private String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    // Expense writes and their summary adjustments commit or roll back together
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private Expense lockExpense(Connection conn, Long id, Long userId) throws SQLException {
+        String sql = "SELECT " + ExpenseRowMapper.COLUMNS + " FROM expenses WHERE id = ? AND user_id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            stmt.setLong(2, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? ExpenseRowMapper.map(rs) : null;
+            }
+        }
+    }
+
+    // Default to user_id = 1 (admin) if not set for backward compatibility
+    private long ownerOf(Expense expense) {
+        return expense.getUserId() != null ? expense.getUserId() : 1L;
+    }
+
+    // One sequence reservation per user instead of one per expense
+    private void reserveMissingIds(List<Expense> expenses) {
+        Map<Long, List<Expense>> unassigned = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getId() == null) {
+                unassigned.computeIfAbsent(ownerOf(expense), userId -> new ArrayList<>()).add(expense);
+            }
+        }
+        unassigned.forEach((userId, group) -> {
+            long nextId = expenseIdService.reserveIds(userId, group.size());
+            for (Expense expense : group) {
+                expense.setId(nextId++);
+            }
+        });
+    }
+
+    private void bindInsert(PreparedStatement stmt, Expense expense, long userId) throws SQLException {
+        stmt.setLong(1, expense.getId());
+        stmt.setBigDecimal(2, expense.getAmount());
+        stmt.setString(3, expense.getCategoryDisplayName());
+        stmt.setDate(4, Date.valueOf(expense.getDate()));
+        stmt.setString(5, expense.getDescription());
+        stmt.setLong(6, userId);
+    }
+
+    // Adds the deltas to one (user, category, month) bucket, creating it on first use and dropping it once empty
+    private void adjustSummary(Connection conn, long userId, String category, LocalDate date,
+                               int countDelta, BigDecimal amountDelta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SUMMARY_UPSERT_SQL)) {
+            bindSummaryDelta(stmt, userId, category, YearMonth.from(date), countDelta, amountDelta);
+            stmt.executeUpdate();
+        }
+
+        if (countDelta < 0) {
+            String prune = "DELETE FROM expense_summaries WHERE user_id = ? AND category = ? AND period_year = ? AND period_month = ? AND expense_count <= 0";
+            try (PreparedStatement stmt = conn.prepareStatement(prune)) {
+                stmt.setLong(1, userId);
+                stmt.setString(2, category);
+                stmt.setInt(3, date.getYear());
+                stmt.setInt(4, date.getMonthValue());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private void bindSummaryDelta(PreparedStatement stmt, long userId, String category, YearMonth month,
+                                  int countDelta, BigDecimal amountDelta) throws SQLException {
+        stmt.setLong(1, userId);
+        stmt.setString(2, category);
+        stmt.setInt(3, month.getYear());
+        stmt.setInt(4, month.getMonthValue());
+        stmt.setInt(5, countDelta);
+        stmt.setBigDecimal(6, amountDelta);
+        stmt.setInt(7, countDelta);
+        stmt.setBigDecimal(8, amountDelta);
+    }
+
+    // Summary buckets are always locked in this order so concurrent writers cannot deadlock on them
+    private record SummaryKey(long userId, String category, YearMonth month) implements Comparable<SummaryKey> {
+
+        static SummaryKey of(long userId, Expense expense) {
+            return new SummaryKey(userId, expense.getCategoryDisplayName(), YearMonth.from(expense.getDate()));
+        }
+
+        @Override
+        public int compareTo(SummaryKey other) {
+            int result = Long.compare(userId, other.userId);
+            if (result == 0) {
+                result = category.compareTo(other.category);
+            }
+            return result != 0 ? result : month.compareTo(other.month);
+        }
     }
 }
\ No newline at end of file
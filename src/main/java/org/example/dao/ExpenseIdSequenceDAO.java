@@ -0,0 +1,6 @@
+package org.example.dao;
+
+public interface ExpenseIdSequenceDAO {
+    long reserveBlock(Long userId, int blockSize);
+    int seedFromExpenses();
+}
@@ -0,0 +1,132 @@
+package org.example.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+
+/**
+ * Per-user ID sequences backing {@link org.example.service.ExpenseIdService}.
+ * Each row in {@code expense_id_sequences} holds the next unreserved expense ID for one user,
+ * so handing out a block of IDs is a single-row update instead of a scan of the user's expenses.
+ */
+@Repository
+public class ExpenseIdSequenceDAOImpl implements ExpenseIdSequenceDAO {
+
+    @Autowired
+    DataSource dataSource;
+
+    /**
+     * Reserves {@code blockSize} consecutive IDs for the user and returns the first one.
+     * The row lock taken by the UPDATE serializes reservations for the same user only.
+     */
+    @Override
+    public long reserveBlock(Long userId, int blockSize) {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                long start = reserveExisting(conn, userId, blockSize);
+                if (start < 0) {
+                    start = insertSequence(conn, userId, blockSize);
+                }
+                conn.commit();
+                return start;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reserving expense IDs for user", e);
+        }
+    }
+
+    /**
+     * Migration path for existing data: moves every user's sequence past {@code MAX(id)} of their expenses.
+     * Safe to run on every startup since sequences only ever move forward.
+     */
+    @Override
+    public int seedFromExpenses() {
+        String sql = "SELECT user_id, MAX(id) FROM expenses GROUP BY user_id";
+        int seeded = 0;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                long userId = rs.getLong(1);
+                long nextId = rs.getLong(2) + 1;
+                if (advanceTo(conn, userId, nextId) == 0) {
+                    insertAt(conn, userId, nextId);
+                }
+                seeded++;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error seeding expense ID sequences", e);
+        }
+        return seeded;
+    }
+
+    private long reserveExisting(Connection conn, Long userId, int blockSize) throws SQLException {
+        String update = "UPDATE expense_id_sequences SET next_id = next_id + ? WHERE user_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(update)) {
+            stmt.setInt(1, blockSize);
+            stmt.setLong(2, userId);
+            if (stmt.executeUpdate() == 0) {
+                return -1;
+            }
+        }
+
+        String select = "SELECT next_id FROM expense_id_sequences WHERE user_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(select)) {
+            stmt.setLong(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) - blockSize;
+            }
+        }
+    }
+
+    private long insertSequence(Connection conn, Long userId, int blockSize) throws SQLException {
+        long start = 1;
+        String max = "SELECT MAX(id) FROM expenses WHERE user_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(max)) {
+            stmt.setLong(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    start = rs.getLong(1) + 1;
+                }
+            }
+        }
+
+        try {
+            insertAt(conn, userId, start + blockSize);
+            return start;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Another node created the row first; take a block from it instead
+            return reserveExisting(conn, userId, blockSize);
+        }
+    }
+
+    private int advanceTo(Connection conn, long userId, long nextId) throws SQLException {
+        String sql = "UPDATE expense_id_sequences SET next_id = GREATEST(next_id, ?) WHERE user_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, nextId);
+            stmt.setLong(2, userId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private void insertAt(Connection conn, long userId, long nextId) throws SQLException {
+        String sql = "INSERT INTO expense_id_sequences (user_id, next_id) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, userId);
+            stmt.setLong(2, nextId);
+            stmt.executeUpdate();
+        }
+    }
+}
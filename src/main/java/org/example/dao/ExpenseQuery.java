@@ -0,0 +1,70 @@
+package org.example.dao;
+
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter specification translated by {@link ExpenseDAO} into a single parameterized WHERE clause.
+ * Every criterion is optional; {@code null} means "do not filter on this column".
+ * An empty category set is a valid criterion that matches no rows (e.g. an unknown category name).
+ */
+public record ExpenseQuery(Long userId,
+                           LocalDate startDate,
+                           LocalDate endDate,
+                           Set<ExpenseCategory> categories,
+                           BigDecimal minAmount,
+                           BigDecimal maxAmount,
+                           String descriptionContains) {
+
+    public static ExpenseQuery all() {
+        return new ExpenseQuery(null, null, null, null, null, null, null);
+    }
+
+    public static ExpenseQuery forUser(Long userId) {
+        return all().withUserId(userId);
+    }
+
+    public ExpenseQuery withUserId(Long userId) {
+        return new ExpenseQuery(userId, startDate, endDate, categories, minAmount, maxAmount, descriptionContains);
+    }
+
+    public ExpenseQuery withDateRange(LocalDate startDate, LocalDate endDate) {
+        return new ExpenseQuery(userId, startDate, endDate, categories, minAmount, maxAmount, descriptionContains);
+    }
+
+    public ExpenseQuery withCategories(Collection<ExpenseCategory> categories) {
+        Set<ExpenseCategory> copy = categories.isEmpty() ? EnumSet.noneOf(ExpenseCategory.class) : EnumSet.copyOf(categories);
+        return new ExpenseQuery(userId, startDate, endDate, copy, minAmount, maxAmount, descriptionContains);
+    }
+
+    public ExpenseQuery withAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
+        return new ExpenseQuery(userId, startDate, endDate, categories, minAmount, maxAmount, descriptionContains);
+    }
+
+    public ExpenseQuery withDescriptionContaining(String text) {
+        String trimmed = text != null && !text.trim().isEmpty() ? text.trim() : null;
+        return new ExpenseQuery(userId, startDate, endDate, categories, minAmount, maxAmount, trimmed);
+    }
+
+    public boolean matchesNothing() {
+        return categories != null && categories.isEmpty();
+    }
+
+    // In-memory equivalent of the WHERE clause built by ExpenseDAOImpl
+    public boolean matches(Expense expense) {
+        return (userId == null || userId.equals(expense.getUserId()))
+            && (startDate == null || !expense.getDate().isBefore(startDate))
+            && (endDate == null || !expense.getDate().isAfter(endDate))
+            && (categories == null || categories.contains(expense.getCategory()))
+            && (minAmount == null || expense.getAmount().compareTo(minAmount) >= 0)
+            && (maxAmount == null || expense.getAmount().compareTo(maxAmount) <= 0)
+            && (descriptionContains == null
+                || expense.getDescription().toLowerCase().contains(descriptionContains.toLowerCase()));
+    }
+}
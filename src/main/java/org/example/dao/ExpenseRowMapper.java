@@ -0,0 +1,37 @@
+package org.example.dao;
+
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Maps expense rows selected with {@link #COLUMNS} by column position rather than by name, and builds them
+ * through {@link Expense#fromRow} since stored rows were validated on the way in.
+ */
+final class ExpenseRowMapper {
+
+    static final String COLUMNS = "id, amount, category, date, description, user_id";
+
+    private static final int ID = 1;
+    private static final int AMOUNT = 2;
+    private static final int CATEGORY = 3;
+    private static final int DATE = 4;
+    private static final int DESCRIPTION = 5;
+    private static final int USER_ID = 6;
+
+    private ExpenseRowMapper() {
+    }
+
+    static Expense map(ResultSet rs) throws SQLException {
+        return Expense.fromRow(
+            rs.getLong(ID),
+            rs.getString(DESCRIPTION),
+            rs.getBigDecimal(AMOUNT),
+            ExpenseCategory.fromString(rs.getString(CATEGORY)),
+            rs.getObject(DATE, LocalDate.class),
+            rs.getLong(USER_ID));
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.dao;
+
+import java.util.List;
+
+/**
+ * Whitelisted ORDER BY clauses for the expense list. Request parameters are only ever mapped
+ * to one of these constants, never concatenated into SQL. Ties fall back to primary key order.
+ */
+public enum ExpenseSortOrder {
+    DEFAULT("id, user_id"),
+    ID("id, user_id"),
+    DESCRIPTION("description, id, user_id"),
+    AMOUNT("amount, id, user_id"),
+    CATEGORY("category, id, user_id"),
+    DATE("date, id, user_id");
+
+    private final String orderBy;
+    private final List<String> columns;
+
+    ExpenseSortOrder(String orderBy) {
+        this.orderBy = orderBy;
+        this.columns = List.of(orderBy.split(", "));
+    }
+
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static ExpenseSortOrder fromString(String sortBy) {
+        if (sortBy == null || sortBy.trim().isEmpty()) return DEFAULT;
+        return switch (sortBy.trim().toLowerCase()) {
+            case "id" -> ID;
+            case "description" -> DESCRIPTION;
+            case "amount" -> AMOUNT;
+            case "category" -> CATEGORY;
+            case "date" -> DATE;
+            default -> DEFAULT;
+        };
+    }
+}
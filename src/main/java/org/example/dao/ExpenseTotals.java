@@ -0,0 +1,12 @@
+package org.example.dao;
+
+import java.math.BigDecimal;
+
+public record ExpenseTotals(long count, BigDecimal amount) {
+
+    public static final ExpenseTotals EMPTY = new ExpenseTotals(0, BigDecimal.ZERO);
+
+    public ExpenseTotals plus(ExpenseTotals other) {
+        return new ExpenseTotals(count + other.count, amount.add(other.amount));
+    }
+}
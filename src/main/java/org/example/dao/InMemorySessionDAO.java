@@ -0,0 +1,44 @@
+package org.example.dao;
+
+import org.example.model.StoredSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sessions in this node's memory, for tests and single-node runs without the user_sessions table
+@Repository
+@ConditionalOnProperty(name = "expense.auth.session-store", havingValue = "memory")
+public class InMemorySessionDAO implements SessionDAO {
+
+    private final Map<String, StoredSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(StoredSession session) {
+        sessions.put(session.id(), session);
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        return sessions.get(id);
+    }
+
+    @Override
+    public void updateExpiry(String id, Instant expiresAt) {
+        sessions.computeIfPresent(id, (key, session) -> session.withExpiresAt(expiresAt));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        sessions.remove(id);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.expiresAt().isBefore(now));
+        return before - sessions.size();
+    }
+}
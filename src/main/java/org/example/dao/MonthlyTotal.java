@@ -0,0 +1,7 @@
+package org.example.dao;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record MonthlyTotal(YearMonth month, long count, BigDecimal amount) {
+}
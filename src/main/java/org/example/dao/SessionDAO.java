@@ -0,0 +1,13 @@
+package org.example.dao;
+
+import org.example.model.StoredSession;
+
+import java.time.Instant;
+
+public interface SessionDAO {
+    void save(StoredSession session);
+    StoredSession findById(String id);
+    void updateExpiry(String id, Instant expiresAt);
+    void deleteById(String id);
+    int deleteExpired(Instant now);
+}
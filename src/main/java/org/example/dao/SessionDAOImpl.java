@@ -0,0 +1,60 @@
+package org.example.dao;
+
+import org.example.model.StoredSession;
+import org.example.model.UserRole;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+// Sessions in the user_sessions table, shared by all nodes; the default store
+@Repository
+@ConditionalOnProperty(name = "expense.auth.session-store", havingValue = "jdbc", matchIfMissing = true)
+public class SessionDAOImpl implements SessionDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<StoredSession> sessionRowMapper = (rs, rowNum) -> new StoredSession(
+        rs.getString(1),
+        rs.getLong(2),
+        UserRole.valueOf(rs.getString(3)),
+        rs.getString(4),
+        Instant.ofEpochMilli(rs.getLong(5)));
+
+    public SessionDAOImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void save(StoredSession session) {
+        jdbcTemplate.update(
+            "INSERT INTO user_sessions (id, user_id, role, username, expires_at) VALUES (?, ?, ?, ?, ?)",
+            session.id(), session.userId(), session.role().name(), session.username(), session.expiresAt().toEpochMilli());
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        List<StoredSession> sessions = jdbcTemplate.query(
+            "SELECT id, user_id, role, username, expires_at FROM user_sessions WHERE id = ?",
+            sessionRowMapper, id);
+        return sessions.isEmpty() ? null : sessions.get(0);
+    }
+
+    @Override
+    public void updateExpiry(String id, Instant expiresAt) {
+        jdbcTemplate.update("UPDATE user_sessions SET expires_at = ? WHERE id = ?", expiresAt.toEpochMilli(), id);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        jdbcTemplate.update("DELETE FROM user_sessions WHERE id = ?", id);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM user_sessions WHERE expires_at < ?", now.toEpochMilli());
+    }
+}
@@ -6,6 +6,8 @@ import java.util.List;
 
 public interface UserDAO {
     User findByUsername(String username);
+    User findById(Long id);
     User save(User user);
+    void updatePassword(Long id, String password);
     List<User> findAll();
 }
\ No newline at end of file
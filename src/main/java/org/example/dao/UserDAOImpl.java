@@ -42,6 +42,17 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public User findById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(
+                "SELECT id, username, password, role FROM users WHERE id = ?",
+                userRowMapper, id);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     @Override
     public User save(User user) {
         KeyHolder keyHolder = new GeneratedKeyHolder();
@@ -58,6 +69,11 @@ public class UserDAOImpl implements UserDAO {
         return user;
     }
 
+    @Override
+    public void updatePassword(Long id, String password) {
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", password, id);
+    }
+
     @Override
     public List<User> findAll() {
         return jdbcTemplate.query(
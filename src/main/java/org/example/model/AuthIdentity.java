@@ -0,0 +1,7 @@
+package org.example.model;
+
+// The signed-in user as carried by a stateless auth token; AuthFilter stores it on the request under REQUEST_ATTRIBUTE
+public record AuthIdentity(Long userId, UserRole role, String username) {
+
+    public static final String REQUEST_ATTRIBUTE = AuthIdentity.class.getName();
+}
@@ -8,6 +8,8 @@ import java.time.LocalDate;
 @Table(name = "expenses")
 @SuppressWarnings("unused")
 public class Expense {
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +48,22 @@ public class Expense {
         setUserId(userId);
     }
 
+    /**
+     * Builds an expense from a database row without running the setter validation. Only for values read
+     * back from the expenses table, which only ever receives expenses that passed it.
+     */
+    public static Expense fromRow(Long id, String description, BigDecimal amount, ExpenseCategory category,
+                                  LocalDate date, Long userId) {
+        Expense expense = new Expense();
+        expense.id = id;
+        expense.description = description;
+        expense.amount = amount;
+        expense.category = category;
+        expense.date = date;
+        expense.userId = userId;
+        return expense;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { 
@@ -68,7 +86,7 @@ public class Expense {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be greater than 0");
         }
-        if (amount.compareTo(new BigDecimal("99999999.99")) > 0) {
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
             throw new IllegalArgumentException("Amount cannot exceed 99,999,999.99");
         }
         this.amount = amount; 
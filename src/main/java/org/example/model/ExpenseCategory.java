@@ -1,5 +1,10 @@
 package org.example.model;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
 public enum ExpenseCategory {
     FOOD("Food"),
     TRANSPORT("Transport"),
@@ -9,6 +14,19 @@ public enum ExpenseCategory {
     RENT("Rent"),
     OTHER("Other");
 
+    // Display names and constant names, lower-cased, so lookups need no scan over values()
+    private static final Map<String, ExpenseCategory> BY_NAME = new HashMap<>();
+    // Exact display names, as stored in the database, so mapping a row allocates nothing
+    private static final Map<String, ExpenseCategory> BY_DISPLAY_NAME = new HashMap<>();
+
+    static {
+        for (ExpenseCategory category : values()) {
+            BY_DISPLAY_NAME.put(category.displayName, category);
+            BY_NAME.put(category.displayName.toLowerCase(Locale.ROOT), category);
+            BY_NAME.put(category.name().toLowerCase(Locale.ROOT), category);
+        }
+    }
+
     private final String displayName;
 
     ExpenseCategory(String displayName) {
@@ -19,13 +37,16 @@ public enum ExpenseCategory {
         return displayName;
     }
 
+    // Case-insensitive match on the display name or the constant name; empty for unknown input
+    public static Optional<ExpenseCategory> lookup(String category) {
+        if (category == null) return Optional.empty();
+        return Optional.ofNullable(BY_NAME.get(category.trim().toLowerCase(Locale.ROOT)));
+    }
+
     public static ExpenseCategory fromString(String category) {
         if (category == null) return null;
-        for (ExpenseCategory cat : values()) {
-            if (cat.displayName.equals(category) || cat.name().equals(category)) {
-                return cat;
-            }
-        }
-        throw new IllegalArgumentException("Invalid category: " + category);
+        ExpenseCategory exact = BY_DISPLAY_NAME.get(category);
+        if (exact != null) return exact;
+        return lookup(category).orElseThrow(() -> new IllegalArgumentException("Invalid category: " + category));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package org.example.model;
+
+import java.time.Instant;
+
+// A login session kept in the external session store (see SessionStoreService)
+public record StoredSession(String id, Long userId, UserRole role, String username, Instant expiresAt) {
+
+    public AuthIdentity identity() {
+        return new AuthIdentity(userId, role, username);
+    }
+
+    public StoredSession withExpiresAt(Instant newExpiresAt) {
+        return new StoredSession(id, userId, role, username, newExpiresAt);
+    }
+}
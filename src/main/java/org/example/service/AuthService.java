@@ -2,29 +2,119 @@ package org.example.service;
 
 import org.example.dao.UserDAO;
 import org.example.model.User;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Password checks run on the bounded {@code passwordHashExecutor}, never on the request thread. A login that
+ * cannot be queued, or waits longer than {@code expense.auth.hash-timeout-ms}, fails with
+ * {@link LoginThrottledException}; a check still queued when its login timed out is skipped. Successful logins
+ * against a plaintext or weaker hash store a fresh one, written on {@code authWriteExecutor} so hash threads
+ * never wait on the database.
+ */
 @Service
 public class AuthService {
     
     private final UserDAO userDAO;
+    private final PasswordHasher passwordHasher;
+    private final Executor hashExecutor;
+    private final Executor writeExecutor;
+    private final long hashTimeoutMillis;
 
-    public AuthService(UserDAO userDAO) {
+    public AuthService(UserDAO userDAO, PasswordHasher passwordHasher,
+                       @Qualifier("passwordHashExecutor") Executor hashExecutor,
+                       @Qualifier("authWriteExecutor") Executor writeExecutor,
+                       @Value("${expense.auth.hash-timeout-ms:5000}") long hashTimeoutMillis) {
         this.userDAO = userDAO;
+        this.passwordHasher = passwordHasher;
+        this.hashExecutor = hashExecutor;
+        this.writeExecutor = writeExecutor;
+        this.hashTimeoutMillis = hashTimeoutMillis;
     }
 
-    public User authenticate(String username, String password) {
+    // Completes with the user, or null for an unknown username or wrong password
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
         User user = userDAO.findByUsername(username);
-        if (user != null && user.getPassword().equals(password)) {
-            return user;
-        }
-        return null;
+        return onHashPool(() -> {
+            // Unknown users are verified against a dummy hash so both failures take equally long
+            if (!passwordHasher.matches(password, user == null ? null : user.getPassword())) {
+                return null;
+            }
+            String rehash = passwordHasher.needsRehash(user.getPassword()) ? passwordHasher.hash(password) : null;
+            return new PasswordCheck(user, rehash);
+        }).thenCompose(check -> {
+            if (check == null || check.rehash() == null) {
+                return CompletableFuture.completedFuture(check == null ? null : check.user());
+            }
+            return onWritePool(() -> {
+                userDAO.updatePassword(user.getId(), check.rehash());
+                user.setPassword(check.rehash());
+                return user;
+            });
+        });
+    }
+
+    public User authenticate(String username, String password) {
+        return join(authenticateAsync(username, password));
     }
 
     public User createUser(String username, String password) {
         if (userDAO.findByUsername(username) != null) {
             throw new IllegalArgumentException("Username already exists");
         }
-        return userDAO.save(new User(username, password));
+        String hash = join(onHashPool(() -> passwordHasher.hash(password)));
+        return userDAO.save(new User(username, hash));
+    }
+
+    private <T> CompletableFuture<T> onHashPool(Supplier<T> task) {
+        // orTimeout only fails the future; the deadline also keeps a timed-out task from hashing once it is dequeued
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hashTimeoutMillis);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                    if (System.nanoTime() - deadline >= 0) {
+                        throw new LoginThrottledException("Password check timed out");
+                    }
+                    return task.get();
+                }, hashExecutor)
+                .orTimeout(hashTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> CompletableFuture.failedFuture(
+                    unwrap(e) instanceof TimeoutException timeout
+                        ? new LoginThrottledException("Password check timed out", timeout) : unwrap(e)));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Password hashing is saturated", e));
+        }
+    }
+
+    private <T> CompletableFuture<T> onWritePool(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, writeExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Login writes are saturated", e));
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    // A matching password, with the hash to store instead when the current one is plaintext or too weak
+    private record PasswordCheck(User user, String rehash) {
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,20 @@
 package org.example.service;
 
+import org.example.dao.ExpenseQuery;
 import org.example.model.Expense;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.util.List;
 
 @Service
 public class CsvExportService {
     
+    private static final String HEADER = "ID,Description,Amount,Category,Date\n";
+
     private final ExpenseCrudService crudService;
     private final ExpenseFilterService filterService;
     
@@ -37,16 +43,56 @@ public class CsvExportService {
 
     public String exportToCsv(List<Expense> expenses) {
         StringBuilder csv = new StringBuilder();
-        csv.append("ID,Description,Amount,Category,Date\n");
+        csv.append(HEADER);
         
         for (Expense expense : expenses) {
-            csv.append(expense.getId()).append(",")
-               .append(expense.getDescription()).append(",")
-               .append(expense.getAmount()).append(",")
-               .append(expense.getCategory().getDisplayName()).append(",")
-               .append(expense.getDate()).append("\n");
+            appendRow(csv, expense);
         }
         
         return csv.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the filtered export row by row as the database cursor advances,
+     * so memory use does not grow with the number of exported expenses.
+     */
+    public void writeFilteredCsvForUser(LocalDate startDate, LocalDate endDate, String category, Long userId,
+                                        Writer writer) throws IOException {
+        writeCsv(filterService.buildQuery(startDate, endDate, category, userId), writer);
+    }
+
+    public void writeCsv(ExpenseQuery query, Writer writer) throws IOException {
+        writer.write(HEADER);
+        StringBuilder row = new StringBuilder();
+        try {
+            crudService.forEachExpense(query, expense -> {
+                row.setLength(0);
+                appendRow(row, expense);
+                try {
+                    writer.append(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void appendRow(StringBuilder csv, Expense expense) {
+        csv.append(expense.getId()).append(",")
+           .append(escape(expense.getDescription())).append(",")
+           .append(expense.getAmount()).append(",")
+           .append(expense.getCategory().getDisplayName()).append(",")
+           .append(expense.getDate()).append("\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    private String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
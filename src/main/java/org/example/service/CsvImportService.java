@@ -0,0 +1,213 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.example.util.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Streaming CSV import. The upload is parsed one record at a time on the calling thread while full batches
+ * are committed through {@link ExpenseCrudService#saveExpenses}, one transaction each, on the shared
+ * {@code csvImportWriterExecutor}. An import's batches are chained so they are written one after another.
+ * At most {@code expense.import.max-pending-batches} batches wait for the writer; once that many are queued
+ * the parser blocks, so a slow database throttles how fast the upload is read instead of filling the heap.
+ */
+@Service
+public class CsvImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvImportService.class);
+    private static final List<String> REQUIRED_COLUMNS = List.of("description", "amount", "category", "date");
+
+    private final ExpenseCrudService crudService;
+    private final Executor writer;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final int maxReportedErrors;
+
+    public CsvImportService(ExpenseCrudService crudService,
+                            @Qualifier("csvImportWriterExecutor") Executor writer,
+                            @Value("${expense.import.batch-size:1000}") int batchSize,
+                            @Value("${expense.import.max-pending-batches:4}") int maxPendingBatches,
+                            @Value("${expense.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.crudService = crudService;
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPendingBatches = Math.max(1, maxPendingBatches);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    /**
+     * Imports every valid row for the user. Rows are matched to columns by header name, so both the export
+     * format (with its ID column, which is ignored) and files with only Description, Amount, Category and
+     * Date columns are accepted. Invalid rows are skipped and reported; imported expenses get fresh IDs.
+     * A failed batch write stops the import; batches committed before it stay and are counted in the report.
+     * So does an error reading the upload (a client disconnect, say): the rows read up to then are written
+     * and the report carries the error.
+     *
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     * @throws IOException if the header cannot be read
+     */
+    public ImportReport importCsv(Reader input, Long userId) throws IOException {
+        long started = System.nanoTime();
+        CsvReader reader = new CsvReader(input);
+        int[] columns = resolveColumns(reader.next());
+        int requiredFields = Arrays.stream(columns).max().orElse(0) + 1;
+
+        ImportProgress progress = new ImportProgress();
+        String readFailure = null;
+        List<Expense> batch = new ArrayList<>(batchSize);
+        while (progress.failure == null) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IOException e) {
+                logger.warn("CSV upload for user {} failed after line {}: {}", userId, reader.getRecordLine(), e.getMessage());
+                readFailure = "Reading the upload failed after line " + reader.getRecordLine() + ": " + e.getMessage();
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            try {
+                if (record.size() < requiredFields) {
+                    throw new IllegalArgumentException("Expected " + requiredFields + " fields but found " + record.size());
+                }
+                batch.add(toExpense(record, columns, userId));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                progress.reject(reader.getRecordLine(), e.getMessage(), maxReportedErrors);
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                submit(progress, batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (progress.failure == null && !batch.isEmpty()) {
+            submit(progress, batch);
+        }
+        // Batches already handed to the writer always finish; nothing in flight is interrupted
+        while (!progress.pending.isEmpty()) {
+            progress.awaitOldest();
+        }
+        if (progress.failure == null) {
+            progress.failure = readFailure;
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        ImportReport report = new ImportReport(progress.imported, progress.rejected, elapsedMillis,
+            progress.imported * 1000.0 / elapsedMillis, progress.errors, progress.rejected > progress.errors.size(),
+            progress.failure);
+        logger.info("Imported {} expenses for user {} ({} rejected) in {} ms, {} rows/s",
+            progress.imported, userId, progress.rejected, elapsedMillis, Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    // Blocks on the oldest batch once the queue is full, which is what throttles the parser
+    // Each batch starts once the previous one has committed; after a failed batch the rest are not written
+    private void submit(ImportProgress progress, List<Expense> batch) throws IOException {
+        if (progress.pending.size() >= maxPendingBatches) {
+            progress.awaitOldest();
+        }
+        CompletableFuture<Void> write = progress.lastWrite.thenRunAsync(() -> crudService.saveExpenses(batch), writer);
+        progress.lastWrite = write;
+        progress.pending.addLast(new PendingBatch(write, batch.size()));
+    }
+
+    private int[] resolveColumns(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] columns = new int[REQUIRED_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(REQUIRED_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("CSV header is missing the " + REQUIRED_COLUMNS.get(i) + " column");
+            }
+        }
+        return columns;
+    }
+
+    // Same validation as the Expense setters, plus parse errors for the raw text. Descriptions are escaped
+    // like the JSON endpoints escape them, since the views print them as stored
+    private Expense toExpense(List<String> record, int[] columns, Long userId) {
+        String description = record.get(columns[0]);
+        String amount = record.get(columns[1]);
+        String category = record.get(columns[2]);
+        String date = record.get(columns[3]);
+
+        BigDecimal parsedAmount;
+        try {
+            parsedAmount = new BigDecimal(amount.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        return new Expense(HtmlUtils.htmlEscape(description), parsedAmount, ExpenseCategory.fromString(category.trim()),
+            LocalDate.parse(date.trim()), userId);
+    }
+
+    private record PendingBatch(CompletableFuture<Void> write, int rows) {}
+
+    // Per-import counters; only touched by the parsing thread
+    private static final class ImportProgress {
+        private final Deque<PendingBatch> pending = new ArrayDeque<>();
+        private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+        private final List<RowError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private String failure;
+
+        void reject(long line, String message, int maxReportedErrors) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        void awaitOldest() throws IOException {
+            PendingBatch batch = pending.removeFirst();
+            try {
+                batch.write().get();
+                imported += batch.rows();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("CSV import interrupted", e);
+            } catch (ExecutionException e) {
+                // Batches chained after a failed one fail with the same cause; report it once
+                if (failure == null) {
+                    logger.error("CSV import batch failed: {}", e.getCause().getMessage(), e.getCause());
+                    failure = e.getCause().getMessage();
+                }
+            }
+        }
+    }
+
+    public record RowError(long line, String message) {}
+
+    /**
+     * Outcome of one import. {@code failure} is null unless a batch write or reading the upload failed and
+     * stopped the import.
+     */
+    public record ImportReport(long importedRows, long rejectedRows, long elapsedMillis, double rowsPerSecond,
+                               List<RowError> errors, boolean errorsTruncated, String failure) {}
+}
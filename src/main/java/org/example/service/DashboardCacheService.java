@@ -0,0 +1,156 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dao.ExpenseTotals;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user dashboard snapshots, versioned by {@link ExpenseWriteVersions}. A snapshot holds everything the
+ * dashboard page and its chart endpoints show and is rebuilt only after the user's expenses change,
+ * with its queries running in parallel on the bounded {@code dashboardQueryExecutor}.
+ * Versions only count writes made through this node, so snapshots also expire {@code ttl} after they were built;
+ * with several nodes behind a load balancer that bounds how long a write made elsewhere stays invisible here.
+ * Each snapshot carries its own ETag, so a client holding the current one can be answered without a database read
+ * for as long as the snapshot lives.
+ * Requests are counted as {@code dashboard.cache.requests} (result = hit, miss, not_modified) and
+ * {@code dashboard.cache.hit.ratio} reports the share served without a database read.
+ */
+@Service
+public class DashboardCacheService {
+
+    private final DashboardService dashboardService;
+    private final ExpenseWriteVersions writeVersions;
+    private final Executor queryExecutor;
+    private final Cache<Long, UserDashboard> snapshots;
+    private final AtomicLong builds = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    @Autowired
+    public DashboardCacheService(DashboardService dashboardService, ExpenseWriteVersions writeVersions,
+                                 @Qualifier("dashboardQueryExecutor") Executor queryExecutor,
+                                 @Value("${expense.dashboard.cache.max-size:10000}") long maxSize,
+                                 @Value("${expense.dashboard.cache.ttl-seconds:60}") long ttlSeconds,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this(dashboardService, writeVersions, queryExecutor, maxSize, Duration.ofSeconds(ttlSeconds), Ticker.systemTicker());
+        meterRegistry.ifAvailable(this::registerMetrics);
+    }
+
+    DashboardCacheService(DashboardService dashboardService, ExpenseWriteVersions writeVersions, Executor queryExecutor,
+                          long maxSize, Duration ttl, Ticker ticker) {
+        this.dashboardService = dashboardService;
+        this.writeVersions = writeVersions;
+        this.queryExecutor = queryExecutor;
+        this.snapshots = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, maxSize))
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .build();
+    }
+
+    /**
+     * ETag of the user's cached snapshot if it is still current, otherwise null: a client can only be told its
+     * copy is unchanged while the snapshot it was built from is neither outdated nor expired.
+     */
+    public String currentETag(Long userId) {
+        UserDashboard cached = snapshots.getIfPresent(userId);
+        return cached != null && cached.version() >= writeVersions.currentVersion(userId) ? cached.eTag() : null;
+    }
+
+    /**
+     * True if the If-None-Match header names the given (current) ETag. Weak validators ({@code W/"..."})
+     * match too, since proxies that compress the response weaken the ETag.
+     */
+    public boolean isNotModified(String eTag, String ifNoneMatch) {
+        if (eTag == null || ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        boolean matches = Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+            .anyMatch(eTag::equals);
+        if (matches) {
+            notModified.increment();
+        }
+        return matches;
+    }
+
+    public UserDashboard getDashboard(Long userId) {
+        // Read the version before the queries: a write that lands meanwhile bumps it, so this snapshot is
+        // replaced on the next request instead of being served under the newer version
+        long version = writeVersions.currentVersion(userId);
+        UserDashboard cached = snapshots.getIfPresent(userId);
+        if (cached != null && cached.version() >= version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        // The three summary queries are independent, so a rebuild takes as long as the slowest one
+        CompletableFuture<ExpenseTotals> totals =
+            CompletableFuture.supplyAsync(() -> dashboardService.getTotalsForUser(userId), queryExecutor);
+        CompletableFuture<Map<String, BigDecimal>> byCategory =
+            CompletableFuture.supplyAsync(() -> dashboardService.getSpendingByCategoryForUser(userId), queryExecutor);
+        CompletableFuture<Map<String, BigDecimal>> byMonth =
+            CompletableFuture.supplyAsync(() -> dashboardService.getSpendingByMonthForUser(userId), queryExecutor);
+        UserDashboard fresh;
+        try {
+            fresh = new UserDashboard(version, eTag(version, builds.incrementAndGet()),
+                Collections.unmodifiableMap(byCategory.join()), Collections.unmodifiableMap(byMonth.join()),
+                totals.join().amount(), totals.join().count());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        snapshots.asMap().merge(userId, fresh, (existing, candidate) ->
+            existing.version() >= candidate.version() ? existing : candidate);
+        return fresh;
+    }
+
+    double hitRatio() {
+        double served = hits.sum() + notModified.sum();
+        double total = served + misses.sum();
+        return total == 0 ? 0 : served / total;
+    }
+
+    // The build number tells apart snapshots of the same version rebuilt after expiring
+    private String eTag(long version, long build) {
+        return "\"dashboard-" + writeVersions.getInstanceId() + "-" + version + "-" + build + "\"";
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("dashboard.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("dashboard.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        FunctionCounter.builder("dashboard.cache.requests", notModified, LongAdder::sum).tag("result", "not_modified")
+            .register(registry);
+        Gauge.builder("dashboard.cache.hit.ratio", this, DashboardCacheService::hitRatio).register(registry);
+    }
+
+    public record UserDashboard(long version, String eTag, Map<String, BigDecimal> spendingByCategory,
+                                Map<String, BigDecimal> spendingByMonth, BigDecimal totalSpending,
+                                long totalExpenses) {
+        // What a request without a session sees
+        public static final UserDashboard EMPTY =
+            new UserDashboard(0, "", Map.of(), Map.of(), BigDecimal.ZERO, 0);
+    }
+}
@@ -1,18 +1,17 @@
 package org.example.service;
 
+import org.example.dao.CategoryTotal;
 import org.example.dao.ExpenseDAO;
-import org.example.model.Expense;
-import org.example.model.ExpenseCategory;
+import org.example.dao.ExpenseTotals;
+import org.example.dao.MonthlyTotal;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+// Reads come from the expense_summaries table, so their cost depends on categories x months, not on expense count
 @Service
 public class DashboardService {
     
@@ -23,82 +22,52 @@ public class DashboardService {
     }
 
     public Map<String, BigDecimal> getSpendingByCategory() {
-        List<Expense> expenses = expenseDAO.findAll();
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                    expense -> expense.getCategory().getDisplayName(),
-                    LinkedHashMap::new,
-                    Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ));
+        return toCategoryMap(expenseDAO.sumByCategory(null));
     }
 
     public Map<String, BigDecimal> getSpendingByCategoryForUser(Long userId) {
-        List<Expense> expenses = expenseDAO.findAllByUserId(userId);
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                    expense -> expense.getCategory().getDisplayName(),
-                    LinkedHashMap::new,
-                    Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ));
+        return toCategoryMap(expenseDAO.sumByCategory(userId));
     }
 
     public Map<String, BigDecimal> getSpendingByMonth() {
-        List<Expense> expenses = expenseDAO.findAll();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                    expense -> expense.getDate().format(formatter),
-                    LinkedHashMap::new,
-                    Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
+        return toMonthMap(expenseDAO.sumByMonth(null));
     }
 
     public Map<String, BigDecimal> getSpendingByMonthForUser(Long userId) {
-        List<Expense> expenses = expenseDAO.findAllByUserId(userId);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                    expense -> expense.getDate().format(formatter),
-                    LinkedHashMap::new,
-                    Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
+        return toMonthMap(expenseDAO.sumByMonth(userId));
     }
 
     public BigDecimal getTotalSpending() {
-        return expenseDAO.findAll().stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return expenseDAO.totalsByUserId(null).amount();
     }
 
     public BigDecimal getTotalSpendingForUser(Long userId) {
-        return expenseDAO.findAllByUserId(userId).stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return expenseDAO.totalsByUserId(userId).amount();
+    }
+
+    public ExpenseTotals getTotalsForUser(Long userId) {
+        return expenseDAO.totalsByUserId(userId);
     }
 
     public long getTotalExpenseCount() {
-        return expenseDAO.findAll().size();
+        return expenseDAO.totalsByUserId(null).count();
     }
 
     public long getTotalExpenseCountForUser(Long userId) {
-        return expenseDAO.findAllByUserId(userId).size();
+        return expenseDAO.totalsByUserId(userId).count();
+    }
+
+    private Map<String, BigDecimal> toCategoryMap(List<CategoryTotal> totals) {
+        Map<String, BigDecimal> spending = new LinkedHashMap<>();
+        // Legacy rows may store the same category under different spellings; fold them together
+        totals.forEach(total -> spending.merge(total.category().getDisplayName(), total.amount(), BigDecimal::add));
+        return spending;
+    }
+
+    private Map<String, BigDecimal> toMonthMap(List<MonthlyTotal> totals) {
+        // Rows arrive ordered by year and month, so the "yyyy-MM" keys stay sorted
+        Map<String, BigDecimal> spending = new LinkedHashMap<>();
+        totals.forEach(total -> spending.put(total.month().toString(), total.amount()));
+        return spending;
     }
-}
\ No newline at end of file
+}
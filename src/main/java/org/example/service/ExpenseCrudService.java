@@ -1,23 +1,29 @@
 package org.example.service;
 
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseTotals;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class ExpenseCrudService {
     
     private final ExpenseDAO expenseDAO;
     private final ExpenseIdService idService;
+    private final ExpenseWriteVersions writeVersions;
 
-    public ExpenseCrudService(ExpenseDAO expenseDAO, ExpenseIdService idService) {
+    public ExpenseCrudService(ExpenseDAO expenseDAO, ExpenseIdService idService, ExpenseWriteVersions writeVersions) {
         this.expenseDAO = expenseDAO;
         this.idService = idService;
+        this.writeVersions = writeVersions;
     }
 
     public List<Expense> getAllExpenses() { return expenseDAO.findAll(); }
@@ -26,6 +32,22 @@ public class ExpenseCrudService {
         return expenseDAO.findAllByUserId(userId); 
     }
 
+    public List<Expense> findExpenses(ExpenseQuery query) {
+        return expenseDAO.findByQuery(query);
+    }
+
+    public void forEachExpense(ExpenseQuery query, Consumer<Expense> consumer) {
+        expenseDAO.streamByQuery(query, consumer);
+    }
+
+    public long countExpenses(ExpenseQuery query) {
+        return expenseDAO.countByQuery(query);
+    }
+
+    public ExpenseTotals getTotals(ExpenseQuery query) {
+        return expenseDAO.totalsByQuery(query);
+    }
+
     public Expense getExpenseById(Long id) {
         return expenseDAO.findById(id);
     }
@@ -36,64 +58,78 @@ public class ExpenseCrudService {
 
     public Expense saveExpense(Expense expense) {
         if (expense.getId() == null) {
-            expense.setId(idService.getNextAvailableId());
+            expense.setId(expense.getUserId() != null ?
+                idService.getNextAvailableIdForUser(expense.getUserId()) :
+                idService.getNextAvailableId());
         }
         expenseDAO.save(expense);
+        writeVersions.recordWrite(expense.getUserId());
         return expense;
     }
 
     public void updateExpense(Expense expense) {
         expenseDAO.update(expense);
+        writeVersions.recordWrite(expense.getUserId());
     }
 
     public void deleteExpense(Long id) {
         expenseDAO.deleteById(id);
+        writeVersions.recordWriteForAllUsers();
     }
     
     public void deleteExpenseByIdAndUserId(Long id, Long userId) {
         expenseDAO.deleteByIdAndUserId(id, userId);
+        writeVersions.recordWrite(userId);
     }
 
     public void deleteAllExpenses() {
         expenseDAO.deleteAll();
+        writeVersions.recordWriteForAllUsers();
     }
     
     public void deleteAllExpensesByUserId(Long userId) {
         expenseDAO.deleteAllByUserId(userId);
+        writeVersions.recordWrite(userId);
     }
 
     public BigDecimal getTotalAmount() {
-        return getAllExpenses().stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return expenseDAO.totalsByUserId(null).amount();
     }
     
     public BigDecimal getTotalAmountByUserId(Long userId) {
-        return getAllExpensesByUserId(userId).stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return expenseDAO.totalsByUserId(userId).amount();
+    }
+
+    // Expenses without an ID get theirs from one block reservation per user inside ExpenseDAO.saveAll
+    public List<Expense> saveExpenses(List<Expense> expenses) {
+        expenseDAO.saveAll(expenses);
+        expenses.stream().map(Expense::getUserId).distinct().forEach(writeVersions::recordWrite);
+        return expenses;
     }
 
     public Expense addRandomExpense() {
-        ExpenseCategory[] categories = ExpenseCategory.values();
-        String[] descriptions = {
-            "Lunch", "Coffee", "Groceries", "Bus ticket", "Taxi", "Gas bill", "Movie ticket", 
-            "Shopping", "Dinner", "Breakfast", "Electricity bill", "Water bill", "Rent payment"
-        };
-        
-        java.util.Random random = new java.util.Random();
-        ExpenseCategory category = categories[random.nextInt(categories.length)];
-        String description = descriptions[random.nextInt(descriptions.length)];
-        BigDecimal amount = BigDecimal.valueOf(5 + random.nextDouble() * 95).setScale(2, java.math.RoundingMode.HALF_UP);
-        LocalDate date = LocalDate.now().minusDays(random.nextInt(30));
-        
-        Expense expense = new Expense(description, amount, category, date);
         // Set default userId for backward compatibility
-        expense.setUserId(1L);
-        return saveExpense(expense);
+        return saveExpense(randomExpense(1L));
     }
     
     public Expense addRandomExpenseForUser(Long userId) {
+        return saveExpense(randomExpense(userId));
+    }
+
+    public Expense addMultipleRandomExpenses(int count) {
+        List<Expense> expenses = addMultipleRandomExpensesForUser(1L, count);
+        return expenses.isEmpty() ? null : expenses.get(expenses.size() - 1);
+    }
+
+    public List<Expense> addMultipleRandomExpensesForUser(Long userId, int count) {
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(randomExpense(userId));
+        }
+        return saveExpenses(expenses);
+    }
+
+    private Expense randomExpense(Long userId) {
         ExpenseCategory[] categories = ExpenseCategory.values();
         String[] descriptions = {
             "Lunch", "Coffee", "Groceries", "Bus ticket", "Taxi", "Gas bill", "Movie ticket", 
@@ -106,15 +142,6 @@ public class ExpenseCrudService {
         BigDecimal amount = BigDecimal.valueOf(5 + random.nextDouble() * 95).setScale(2, java.math.RoundingMode.HALF_UP);
         LocalDate date = LocalDate.now().minusDays(random.nextInt(30));
         
-        Expense expense = new Expense(description, amount, category, date, userId);
-        return saveExpense(expense);
-    }
-
-    public Expense addMultipleRandomExpenses(int count) {
-        Expense lastExpense = null;
-        for (int i = 0; i < count; i++) {
-            lastExpense = addRandomExpense();
-        }
-        return lastExpense;
+        return new Expense(description, amount, category, date, userId);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,14 @@
 package org.example.service;
 
+import org.example.dao.ExpenseQuery;
 import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,55 +21,63 @@ public class ExpenseFilterService {
     }
     
     public List<Expense> getFilteredExpenses(LocalDate startDate, LocalDate endDate, String category) {
-        List<Expense> expenses = expenseCrudService.getAllExpenses();
-        return filterExpenses(expenses, startDate, endDate, category);
+        return expenseCrudService.findExpenses(buildQuery(startDate, endDate, category, null));
     }
     
     public List<Expense> getFilteredExpensesByUserId(LocalDate startDate, LocalDate endDate, String category, Long userId) {
-        List<Expense> expenses = expenseCrudService.getAllExpensesByUserId(userId);
-        return filterExpenses(expenses, startDate, endDate, category);
+        return expenseCrudService.findExpenses(buildQuery(startDate, endDate, category, userId));
+    }
+
+    public List<Expense> getFilteredExpenses(ExpenseQuery query) {
+        return expenseCrudService.findExpenses(query);
     }
 
     public List<Expense> filterExpensesByCategory(String category) {
-        return expenseCrudService.getAllExpenses().stream()
-            .filter(e -> e.getCategoryDisplayName().equalsIgnoreCase(category.trim()))
-            .collect(Collectors.toList());
+        return expenseCrudService.findExpenses(buildQuery(null, null, category, null));
     }
     
     public List<Expense> filterExpensesByCategoryAndUserId(String category, Long userId) {
-        return expenseCrudService.getAllExpensesByUserId(userId).stream()
-            .filter(e -> e.getCategoryDisplayName().equalsIgnoreCase(category.trim()))
-            .collect(Collectors.toList());
+        return expenseCrudService.findExpenses(buildQuery(null, null, category, userId));
     }
 
     public List<Expense> filterExpensesByDateRangeAndUserId(LocalDate startDate, LocalDate endDate, Long userId) {
-        return expenseCrudService.getAllExpensesByUserId(userId).stream()
-            .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-            .collect(Collectors.toList());
+        return expenseCrudService.findExpenses(buildQuery(startDate, endDate, null, userId));
     }
 
     public List<Expense> filterExpensesByDateRange(LocalDate startDate, LocalDate endDate) {
-        return expenseCrudService.getAllExpenses().stream()
-                .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        return expenseCrudService.findExpenses(buildQuery(startDate, endDate, null, null));
     }
 
-    public List<Expense> filterExpenses(List<Expense> expenses, LocalDate startDate, LocalDate endDate, String category) {
-        List<Expense> filtered = expenses;
-        
+    public ExpenseQuery buildQuery(LocalDate startDate, LocalDate endDate, String category, Long userId) {
+        ExpenseQuery query = userId != null ? ExpenseQuery.forUser(userId) : ExpenseQuery.all();
+
+        // A date range only applies when both ends are given
         if (startDate != null && endDate != null) {
-            filtered = filtered.stream()
-                .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+            query = query.withDateRange(startDate, endDate);
         }
-        
+
         if (category != null && !category.trim().isEmpty()) {
-            String trimmedCategory = category.trim();
-            filtered = filtered.stream()
-                .filter(e -> e.getCategoryDisplayName().equalsIgnoreCase(trimmedCategory))
-                .collect(Collectors.toList());
+            query = query.withCategories(resolveCategories(List.of(category)));
         }
-        
-        return filtered;
+
+        return query;
+    }
+
+    // Each entry may itself be a comma-separated list ("Food,Rent"); unknown names are dropped
+    public Set<ExpenseCategory> resolveCategories(List<String> categories) {
+        Set<ExpenseCategory> resolved = EnumSet.noneOf(ExpenseCategory.class);
+        for (String category : categories) {
+            for (String name : category.split(",")) {
+                ExpenseCategory.lookup(name).ifPresent(resolved::add);
+            }
+        }
+        return resolved;
+    }
+
+    public List<Expense> filterExpenses(List<Expense> expenses, LocalDate startDate, LocalDate endDate, String category) {
+        ExpenseQuery query = buildQuery(startDate, endDate, category, null);
+        return expenses.stream()
+            .filter(query::matches)
+            .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -1,61 +1,68 @@
 package org.example.service;
 
-import org.example.dao.ExpenseDAO;
-import org.example.model.Expense;
+import org.example.dao.ExpenseIdSequenceDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.LongStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class ExpenseIdService {
-    
-    private final ExpenseDAO expenseDAO;
 
-    public ExpenseIdService(ExpenseDAO expenseDAO) {
-        this.expenseDAO = expenseDAO;
-    }
-
-    public synchronized Long getNextAvailableId() {
-        List<Long> existingIds = expenseDAO.findAll().stream()
-            .map(Expense::getId)
-            .sorted()
-            .toList();
-
-        if (existingIds.isEmpty()) {
-            return 1L;
-        }
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseIdService.class);
+    // Expenses saved without an owner belong to the admin user (see ExpenseDAOImpl.save)
+    private static final Long DEFAULT_USER_ID = 1L;
 
-        // Find first gap in IDs
-        for (long i = 1; i <= existingIds.size(); i++) {
-            if (!existingIds.contains(i)) {
-                return i;
-            }
-        }
+    private final ExpenseIdSequenceDAO sequenceDAO;
+    private final int blockSize;
+    private final Map<Long, IdBlock> blocks = new ConcurrentHashMap<>();
 
-        // No gaps found, return next sequential ID
-        return existingIds.get(existingIds.size() - 1) + 1;
+    public ExpenseIdService(ExpenseIdSequenceDAO sequenceDAO,
+                            @Value("${expense.id.block-size:50}") int blockSize) {
+        this.sequenceDAO = sequenceDAO;
+        this.blockSize = Math.max(1, blockSize);
     }
 
-    public synchronized Long getNextAvailableIdForUser(Long userId) {
-        List<Long> existingIds = expenseDAO.findAllByUserId(userId).stream()
-            .map(Expense::getId)
-            .sorted()
-            .toList();
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedSequences() {
+        int users = sequenceDAO.seedFromExpenses();
+        logger.info("Seeded expense ID sequences for {} users", users);
+    }
 
-        if (existingIds.isEmpty()) {
-            return 1L;
-        }
+    public Long getNextAvailableId() {
+        return getNextAvailableIdForUser(DEFAULT_USER_ID);
+    }
 
-        // Find first gap in IDs
-        for (long i = 1; i <= existingIds.size(); i++) {
-            if (!existingIds.contains(i)) {
-                return i;
+    public Long getNextAvailableIdForUser(Long userId) {
+        IdBlock block = blocks.computeIfAbsent(userId, id -> new IdBlock());
+        // Only callers for the same user contend here; the database is touched once per block.
+        // A lock rather than synchronized, so a virtual thread waiting on reserveBlock does not pin its carrier.
+        block.lock.lock();
+        try {
+            if (block.next >= block.limit) {
+                block.next = sequenceDAO.reserveBlock(userId, blockSize);
+                block.limit = block.next + blockSize;
             }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
         }
+    }
+
+    // Bulk inserts take their own contiguous range straight from the sequence, leaving the cached block untouched
+    public long reserveIds(Long userId, int count) {
+        return sequenceDAO.reserveBlock(userId, count);
+    }
 
-        // No gaps found, return next sequential ID
-        return existingIds.get(existingIds.size() - 1) + 1;
+    private static final class IdBlock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long limit;
     }
-}
\ No newline at end of file
+}
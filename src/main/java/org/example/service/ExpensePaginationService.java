@@ -1,6 +1,9 @@
 package org.example.service;
 
+import org.example.dao.ExpenseCursor;
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
 import org.example.model.Expense;
 import org.springframework.stereotype.Service;
 
@@ -48,6 +51,66 @@ public class ExpensePaginationService {
         return new PageResult<>(expenses, page, size, totalElements, totalPages);
     }
     
+    public PageResult<Expense> getExpensesPage(ExpenseQuery query, ExpenseSortOrder sortOrder, int page, int size, long totalElements) {
+        if (page < 0) page = 0;
+        if (size <= 0) size = DEFAULT_PAGE_SIZE;
+
+        if (totalElements == 0) {
+            return new PageResult<>(List.of(), 0, size, 0, 0);
+        }
+
+        int totalPages = (int) Math.ceil((double) totalElements / size);
+        if (page >= totalPages) {
+            page = totalPages - 1;
+        }
+
+        List<Expense> expenses = expenseDAO.findPageByQuery(query, sortOrder, page, size);
+
+        return new PageResult<>(expenses, page, size, totalElements, totalPages);
+    }
+
+    // Page (0-based) that shows the expense in the query's listing; 0 if the query does not match it
+    public int findPageOf(Expense expense, ExpenseQuery query, ExpenseSortOrder sortOrder, int size) {
+        if (size <= 0) size = DEFAULT_PAGE_SIZE;
+        if (!query.matches(expense)) {
+            return 0;
+        }
+        return (int) (expenseDAO.countBefore(query, sortOrder, expense) / size);
+    }
+
+    public PageResult<Expense> getExpensesPageAfter(String cursor, int size, Long userId, boolean includeTotal) {
+        if (size <= 0) size = DEFAULT_PAGE_SIZE;
+
+        ExpenseCursor after = cursor != null && !cursor.isEmpty() ? ExpenseCursor.decode(cursor) : null;
+        // One extra row tells us whether another page follows without a COUNT
+        List<Expense> rows = expenseDAO.findPageByUserIdAfter(userId, after, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Expense> content = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasMore ? ExpenseCursor.of(content.get(content.size() - 1)).encode() : null;
+        String previousCursor = after != null && !content.isEmpty() ? ExpenseCursor.of(content.get(0)).encode() : null;
+        return cursorPage(content, size, userId, includeTotal, nextCursor, previousCursor);
+    }
+
+    public PageResult<Expense> getExpensesPageBefore(String cursor, int size, Long userId, boolean includeTotal) {
+        if (size <= 0) size = DEFAULT_PAGE_SIZE;
+
+        ExpenseCursor before = ExpenseCursor.decode(cursor);
+        List<Expense> rows = expenseDAO.findPageByUserIdBefore(userId, before, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Expense> content = hasMore ? rows.subList(1, rows.size()) : rows;
+
+        String previousCursor = hasMore ? ExpenseCursor.of(content.get(0)).encode() : null;
+        String nextCursor = !content.isEmpty() ? ExpenseCursor.of(content.get(content.size() - 1)).encode() : null;
+        return cursorPage(content, size, userId, includeTotal, nextCursor, previousCursor);
+    }
+
+    private PageResult<Expense> cursorPage(List<Expense> content, int size, Long userId, boolean includeTotal,
+                                           String nextCursor, String previousCursor) {
+        long totalElements = includeTotal ? expenseDAO.countAllByUserId(userId) : PageResult.UNKNOWN;
+        return new PageResult<>(content, 0, size, totalElements, PageResult.UNKNOWN, nextCursor, previousCursor);
+    }
+
     public PageResult<Expense> getPageFromList(List<Expense> allExpenses, int page, int size) {
         if (page < 0) page = 0;
         if (size <= 0) size = DEFAULT_PAGE_SIZE;
@@ -70,13 +133,28 @@ public class ExpensePaginationService {
         return new PageResult<>(pageContent, page, size, totalElements, totalPages);
     }
 
-    public record PageResult<T>(List<T> content, int currentPage, int pageSize, long totalElements, int totalPages) {
+    /**
+     * Offset pages fill in currentPage/totalPages; keyset pages leave totalPages {@link #UNKNOWN},
+     * navigate with the cursors, and only report totalElements when it was asked for.
+     */
+    public record PageResult<T>(List<T> content, int currentPage, int pageSize, long totalElements, int totalPages,
+                                String nextCursor, String previousCursor) {
+        public static final int UNKNOWN = -1;
+
+        public PageResult(List<T> content, int currentPage, int pageSize, long totalElements, int totalPages) {
+            this(content, currentPage, pageSize, totalElements, totalPages, null, null);
+        }
+
         public boolean hasNext() {
-            return currentPage < totalPages - 1;
+            return nextCursor != null || currentPage < totalPages - 1;
         }
 
         public boolean hasPrevious() {
-            return currentPage > 0;
+            return previousCursor != null || currentPage > 0;
         }
+
+        public boolean hasTotal() {
+            return totalElements != UNKNOWN;
         }
-}
\ No newline at end of file
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.service;
+
+import org.example.dao.ExpenseDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuild job for the {@code expense_summaries} table. ExpenseDAOImpl keeps the summaries current on
+ * every write; this recomputes them from scratch to seed existing data and to correct any drift.
+ */
+@Service
+public class ExpenseSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseSummaryService.class);
+
+    private final ExpenseDAO expenseDAO;
+    private final ExpenseWriteVersions writeVersions;
+    private final boolean rebuildOnStartup;
+
+    public ExpenseSummaryService(ExpenseDAO expenseDAO, ExpenseWriteVersions writeVersions,
+                                 @Value("${expense.summary.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.expenseDAO = expenseDAO;
+        this.writeVersions = writeVersions;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        if (rebuildOnStartup) {
+            rebuildSummaries();
+        }
+    }
+
+    @Scheduled(cron = "${expense.summary.rebuild-cron:-}")
+    public void rebuildSummaries() {
+        long started = System.currentTimeMillis();
+        int buckets = expenseDAO.rebuildSummaries();
+        // A rebuild that corrected drift changes what the dashboards show
+        writeVersions.recordWriteForAllUsers();
+        logger.info("Rebuilt {} expense summary rows in {} ms", buckets, System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user write counter for cached, derived views of a user's expenses (the dashboard). Every write
+ * through {@link ExpenseCrudService} bumps the owner's version; writes that may touch any user bump all
+ * of them. Versions come from one monotonic sequence, so a user's version never repeats while the
+ * application runs. Counters live in memory and start over on restart, so anything handed to clients
+ * should be qualified with {@link #getInstanceId()}.
+ */
+@Component
+public class ExpenseWriteVersions {
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+    private final AtomicLong allUsersVersion = new AtomicLong();
+
+    public long currentVersion(Long userId) {
+        long userVersion = userId != null ? userVersions.getOrDefault(userId, 0L) : 0L;
+        return Math.max(allUsersVersion.get(), userVersion);
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId == null) {
+            recordWriteForAllUsers();
+            return;
+        }
+        long version = sequence.incrementAndGet();
+        userVersions.merge(userId, version, Math::max);
+    }
+
+    public void recordWriteForAllUsers() {
+        long version = sequence.incrementAndGet();
+        allUsersVersion.accumulateAndGet(version, Math::max);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.service;
+
+// The password hashing pool is saturated; the caller should retry shortly (HTTP 429)
+public class LoginThrottledException extends RuntimeException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+
+    public LoginThrottledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
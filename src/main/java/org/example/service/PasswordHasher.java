@@ -0,0 +1,51 @@
+package org.example.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * bcrypt hashing for stored passwords. Rows written before passwords were hashed still hold the plaintext:
+ * they verify through a constant-time comparison and report {@link #needsRehash} so the next successful
+ * login replaces them, as do hashes made with a lower work factor than the configured one.
+ * Every call is CPU-heavy by design and belongs on the {@code passwordHashExecutor}.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    // Compared against when the user does not exist, so unknown usernames take as long as wrong passwords
+    private final String unknownUserHash;
+
+    public PasswordHasher(@Value("${expense.auth.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.unknownUserHash = encoder.encode("unknown-user");
+    }
+
+    public String hash(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (storedPassword == null) {
+            encoder.matches(rawPassword, unknownUserHash);
+            return false;
+        }
+        if (isHashed(storedPassword)) {
+            return encoder.matches(rawPassword, storedPassword);
+        }
+        return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+            storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private static boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$");
+    }
+}
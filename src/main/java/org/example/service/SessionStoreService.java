@@ -0,0 +1,134 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.dao.SessionDAO;
+import org.example.model.AuthIdentity;
+import org.example.model.StoredSession;
+import org.example.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login sessions in the pluggable {@link SessionDAO} (the user_sessions table by default, or memory), so any
+ * node can serve any request. Each node keeps a near-cache of the sessions it has seen: a request whose session
+ * is cached costs no round trip. Entries are dropped {@code expense.auth.session.near-cache-seconds} after they
+ * were loaded, which bounds how long another node's logout can go unnoticed here. Sessions expire after
+ * {@code expense.auth.session.timeout-minutes} without use and are extended, with one write, once less than half
+ * of that is left. Near-cache counts are published as {@code cache.*} metrics tagged {@code cache=sessions}.
+ * With {@code expense.auth.session-store=container} there is no SessionDAO and Tomcat's HttpSession is used.
+ */
+@Service
+public class SessionStoreService {
+
+    public static final String COOKIE_NAME = "EXPENSE_SESSION";
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreService.class);
+    private static final int ID_BYTES = 32;
+    private static final int ID_LENGTH = 43;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SessionDAO sessionDAO;
+    private final Duration timeout;
+    private final Clock clock;
+    private final Cache<String, StoredSession> nearCache;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public SessionStoreService(ObjectProvider<SessionDAO> sessionDAO,
+                               @Value("${expense.auth.session.timeout-minutes:30}") long timeoutMinutes,
+                               @Value("${expense.auth.session.near-cache-seconds:30}") long nearCacheSeconds,
+                               @Value("${expense.auth.session.near-cache-max-size:100000}") long maxSize,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this(sessionDAO.getIfAvailable(), Duration.ofMinutes(timeoutMinutes), Duration.ofSeconds(nearCacheSeconds),
+            maxSize, Clock.systemUTC(), Ticker.systemTicker());
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, nearCache, "sessions"));
+    }
+
+    public SessionStoreService(SessionDAO sessionDAO, Duration timeout, Duration nearCacheTtl, long maxSize,
+                               Clock clock, Ticker ticker) {
+        this.sessionDAO = sessionDAO;
+        this.timeout = timeout;
+        this.clock = clock;
+        this.nearCache = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, maxSize))
+            .expireAfterWrite(nearCacheTtl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return sessionDAO != null;
+    }
+
+    // Returns the new session's ID, for the session cookie
+    public String create(User user) {
+        byte[] id = new byte[ID_BYTES];
+        random.nextBytes(id);
+        StoredSession session = new StoredSession(ENCODER.encodeToString(id), user.getId(), user.getRole(),
+            user.getUsername(), clock.instant().plus(timeout));
+        sessionDAO.save(session);
+        nearCache.put(session.id(), session);
+        return session.id();
+    }
+
+    // The signed-in user for a session ID, or null if it is unknown or has expired
+    public AuthIdentity find(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            return null;
+        }
+        Instant now = clock.instant();
+        StoredSession session = nearCache.getIfPresent(id);
+        if (session == null || session.expiresAt().isBefore(now)) {
+            // Not seen here yet, or expired by this node's copy while another node may have extended it
+            session = sessionDAO.findById(id);
+            if (session == null || session.expiresAt().isBefore(now)) {
+                nearCache.invalidate(id);
+                return null;
+            }
+            nearCache.put(id, session);
+        }
+        if (Duration.between(now, session.expiresAt()).compareTo(timeout.dividedBy(2)) < 0) {
+            session = session.withExpiresAt(now.plus(timeout));
+            sessionDAO.updateExpiry(id, session.expiresAt());
+            nearCache.put(id, session);
+        }
+        return session.identity();
+    }
+
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        nearCache.invalidate(id);
+        sessionDAO.deleteById(id);
+    }
+
+    @Scheduled(fixedDelayString = "${expense.auth.session.cleanup-minutes:10}",
+        initialDelayString = "${expense.auth.session.cleanup-minutes:10}", timeUnit = TimeUnit.MINUTES)
+    public void deleteExpired() {
+        if (!isEnabled()) {
+            return;
+        }
+        int removed = sessionDAO.deleteExpired(clock.instant());
+        if (removed > 0) {
+            logger.info("Removed {} expired sessions", removed);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.service;
+
+import org.example.model.AuthIdentity;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Signed login tokens for the stateless auth mode ({@code expense.auth.stateless-tokens=true}). A token is
+ * {@code base64url(userId:role:expiry:username)} followed by an HMAC-SHA256 signature of it, so any node holding
+ * the same {@code expense.auth.token.secret} can verify it without shared session state. The key is initialised
+ * once; each check clones the keyed MAC instead of setting the key up again.
+ */
+@Service
+public class SessionTokenService {
+
+    public static final String COOKIE_NAME = "AUTH_TOKEN";
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Mac keyedMac;
+
+    @Autowired
+    public SessionTokenService(@Value("${expense.auth.stateless-tokens:false}") boolean enabled,
+                               @Value("${expense.auth.token.secret:}") String secret,
+                               @Value("${expense.auth.token.ttl-minutes:480}") long ttlMinutes) {
+        this(enabled, keyBytes(secret, enabled), Duration.ofMinutes(ttlMinutes), Clock.systemUTC());
+    }
+
+    public SessionTokenService(boolean enabled, byte[] key, Duration ttl, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.clock = clock;
+        try {
+            this.keyedMac = Mac.getInstance(ALGORITHM);
+            keyedMac.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error initialising token signing key", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(User user) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String payload = user.getId() + ":" + user.getRole().name() + ":" + expiresAt + ":" + user.getUsername();
+        String encoded = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encoded + "." + ENCODER.encodeToString(sign(encoded));
+    }
+
+    // The identity in the token, or null if it is malformed, tampered with or expired
+    public AuthIdentity verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String encoded = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(encoded), DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split(":", 4);
+            if (fields.length != 4 || Long.parseLong(fields[2]) < clock.instant().getEpochSecond()) {
+                return null;
+            }
+            return new AuthIdentity(Long.valueOf(fields[0]), UserRole.valueOf(fields[1]), fields[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            Mac mac = (Mac) keyedMac.clone();
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Error signing token", e);
+        }
+    }
+
+    private static byte[] keyBytes(String secret, boolean enabled) {
+        if (secret == null || secret.isBlank()) {
+            if (enabled) {
+                logger.warn("expense.auth.token.secret is not set; using a random key, so tokens are not accepted "
+                    + "by other nodes or after a restart");
+            }
+            byte[] key = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("expense.auth.token.secret must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        return key;
+    }
+}
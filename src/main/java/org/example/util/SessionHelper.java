@@ -1,24 +1,35 @@
 package org.example.util;
 
 import jakarta.servlet.http.HttpSession;
+import org.example.model.AuthIdentity;
 import org.example.model.UserRole;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-//Helper class
+//Helper class. In stateless token mode the identity comes from the request (see AuthFilter) and session is null.
 public class SessionHelper {
     
     public static Long getUserId(HttpSession session) {
+        AuthIdentity identity = currentIdentity();
+        if (identity != null) return identity.userId();
         return session != null ? (Long) session.getAttribute("userId") : null;
     }
 
     public static UserRole getUserRole(HttpSession session) {
+        AuthIdentity identity = currentIdentity();
+        if (identity != null) return identity.role();
         if (session == null) return UserRole.USER;
         return (UserRole) session.getAttribute("userRole");
     }
 
+    public static String getUsername(HttpSession session) {
+        AuthIdentity identity = currentIdentity();
+        if (identity != null) return identity.username();
+        return session != null ? (String) session.getAttribute("username") : null;
+    }
 
     public static boolean isAdmin(HttpSession session) {
-        if (session == null) return false;
         return UserRole.ADMIN.equals(getUserRole(session));
     }
     
@@ -26,4 +37,10 @@ public class SessionHelper {
         Long userId = getUserId(session);
         return userId == null ? ResponseEntity.status(401).build() : null;
     }
-}
\ No newline at end of file
+
+    private static AuthIdentity currentIdentity() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+            : (AuthIdentity) attributes.getAttribute(AuthIdentity.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
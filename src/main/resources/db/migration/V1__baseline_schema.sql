@@ -0,0 +1,50 @@
+-- Baseline: the schema previously applied by schema.sql on every start. Databases created by schema.sql
+-- are baselined at V0, so this runs against them too: every statement leaves existing objects alone.
+
+-- Create users table
+CREATE TABLE IF NOT EXISTS users (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(20) DEFAULT 'USER'
+);
+
+-- Create expenses table with composite primary key (id, user_id)
+CREATE TABLE IF NOT EXISTS expenses (
+    id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    description TEXT NOT NULL,
+    user_id INT NOT NULL DEFAULT 1,
+    PRIMARY KEY (id, user_id),
+    CONSTRAINT fk_expenses_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- idx_expenses_user_date_id is created by V1_1 (a Java migration), which skips it when it already exists
+
+-- Per-user expense ID sequences; next_id is the first ID not yet handed out for that user
+CREATE TABLE IF NOT EXISTS expense_id_sequences (
+    user_id INT NOT NULL,
+    next_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_expense_id_sequences_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Per-user, per-category, per-month count and sum of expenses, kept in step by ExpenseDAOImpl writes
+-- and recomputed from scratch by ExpenseSummaryService
+CREATE TABLE IF NOT EXISTS expense_summaries (
+    user_id INT NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    period_year SMALLINT NOT NULL,
+    period_month TINYINT NOT NULL,
+    expense_count BIGINT NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (user_id, category, period_year, period_month),
+    CONSTRAINT fk_expense_summaries_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Insert demo users
+INSERT IGNORE INTO users (username, password, role) VALUES ('admin', 'admin', 'ADMIN');
+INSERT IGNORE INTO users (username, password, role) VALUES ('user1', 'user1', 'USER');
+INSERT IGNORE INTO users (username, password, role) VALUES ('user2', 'user2', 'USER');
@@ -0,0 +1,37 @@
+-- Legacy rows may spell a category by its enum name or in another case; store the display name the
+-- application writes before narrowing the column. Values matching no category (which could not be
+-- read back anyway) become 'Other'.
+UPDATE expenses SET category = CASE UPPER(TRIM(category))
+    WHEN 'FOOD' THEN 'Food'
+    WHEN 'TRANSPORT' THEN 'Transport'
+    WHEN 'UTILITIES' THEN 'Utilities'
+    WHEN 'ENTERTAINMENT' THEN 'Entertainment'
+    WHEN 'SHOPPING' THEN 'Shopping'
+    WHEN 'RENT' THEN 'Rent'
+    ELSE 'Other'
+END;
+
+-- One byte per row instead of a VARCHAR(255). Members are listed alphabetically because ENUM columns
+-- sort by member position, and the category sort order should stay alphabetical.
+ALTER TABLE expenses MODIFY category ENUM('Entertainment', 'Food', 'Other', 'Rent', 'Shopping', 'Transport', 'Utilities') NOT NULL;
+
+-- Category filters within a user's expenses, with the date range applied inside the index
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category, date);
+
+-- Summaries are derived data: recreate the table with the same category type and recompute it
+DROP TABLE IF EXISTS expense_summaries;
+
+CREATE TABLE expense_summaries (
+    user_id INT NOT NULL,
+    category ENUM('Entertainment', 'Food', 'Other', 'Rent', 'Shopping', 'Transport', 'Utilities') NOT NULL,
+    period_year SMALLINT NOT NULL,
+    period_month TINYINT NOT NULL,
+    expense_count BIGINT NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (user_id, category, period_year, period_month),
+    CONSTRAINT fk_expense_summaries_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO expense_summaries (user_id, category, period_year, period_month, expense_count, total_amount)
+SELECT user_id, category, YEAR(date), MONTH(date), COUNT(*), SUM(amount) FROM expenses
+GROUP BY user_id, category, YEAR(date), MONTH(date);
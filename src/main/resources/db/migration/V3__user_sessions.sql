@@ -0,0 +1,13 @@
+-- Login sessions shared by every app node (expense.auth.session-store=jdbc). expires_at is in epoch
+-- milliseconds; expired rows are ignored on read and deleted by SessionStoreService's cleanup job.
+CREATE TABLE user_sessions (
+    id CHAR(43) NOT NULL,
+    user_id INT NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    expires_at BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_sessions_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_user_sessions_expires_at ON user_sessions (expires_at);
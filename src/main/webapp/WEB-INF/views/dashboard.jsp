@@ -100,116 +100,118 @@
 
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js"></script>
     <script>
-        // Fetch and render category chart
-        fetch('${pageContext.request.contextPath}/api/dashboard/category-data')
-            .then(response => response.json())
-            .then(data => {
-                const ctx = document.getElementById('categoryChart').getContext('2d');
-                const labels = Object.keys(data);
-                const values = Object.values(data);
-                
-                if (labels.length === 0) {
-                    document.getElementById('categoryChart').parentElement.innerHTML = 
-                        '<div class="text-center py-5"><i class="bi bi-inbox display-1 text-muted"></i><h5 class="text-muted mt-3">No data available</h5></div>';
-                    return;
-                }
+        function renderCategoryChart(data) {
+            const ctx = document.getElementById('categoryChart').getContext('2d');
+            const labels = Object.keys(data);
+            const values = Object.values(data);
+            
+            if (labels.length === 0) {
+                document.getElementById('categoryChart').parentElement.innerHTML = 
+                    '<div class="text-center py-5"><i class="bi bi-inbox display-1 text-muted"></i><h5 class="text-muted mt-3">No data available</h5></div>';
+                return;
+            }
 
-                new Chart(ctx, {
-                    type: 'doughnut',
-                    data: {
-                        labels: labels,
-                        datasets: [{
-                            data: values,
-                            backgroundColor: [
-                                '#FF6384', '#36A2EB', '#FFCE56', '#4BC0C0',
-                                '#9966FF', '#FF9F40', '#FF6384', '#C9CBCF'
-                            ],
-                            borderWidth: 2,
-                            borderColor: '#fff'
-                        }]
-                    },
-                    options: {
-                        responsive: true,
-                        maintainAspectRatio: false,
-                        plugins: {
-                            legend: {
-                                position: 'bottom'
-                            },
-                            tooltip: {
-                                callbacks: {
-                                    label: function(context) {
-                                        return context.label + ': $' + context.parsed.toFixed(2);
-                                    }
+            new Chart(ctx, {
+                type: 'doughnut',
+                data: {
+                    labels: labels,
+                    datasets: [{
+                        data: values,
+                        backgroundColor: [
+                            '#FF6384', '#36A2EB', '#FFCE56', '#4BC0C0',
+                            '#9966FF', '#FF9F40', '#FF6384', '#C9CBCF'
+                        ],
+                        borderWidth: 2,
+                        borderColor: '#fff'
+                    }]
+                },
+                options: {
+                    responsive: true,
+                    maintainAspectRatio: false,
+                    plugins: {
+                        legend: {
+                            position: 'bottom'
+                        },
+                        tooltip: {
+                            callbacks: {
+                                label: function(context) {
+                                    return context.label + ': $' + context.parsed.toFixed(2);
                                 }
                             }
                         }
                     }
-                });
-            })
-            .catch(error => {
-                console.error('Error fetching category data:', error);
-                document.getElementById('categoryChart').parentElement.innerHTML = 
-                    '<div class="text-center py-5 text-danger"><i class="bi bi-exclamation-triangle display-1"></i><h5 class="mt-3">Error loading chart</h5></div>';
+                }
             });
+        }
 
-        // Fetch and render monthly chart
-        fetch('${pageContext.request.contextPath}/api/dashboard/monthly-data')
-            .then(response => response.json())
-            .then(data => {
-                const ctx = document.getElementById('monthlyChart').getContext('2d');
-                const labels = Object.keys(data);
-                const values = Object.values(data);
-                
-                if (labels.length === 0) {
-                    document.getElementById('monthlyChart').parentElement.innerHTML = 
-                        '<div class="text-center py-5"><i class="bi bi-inbox display-1 text-muted"></i><h5 class="text-muted mt-3">No data available</h5></div>';
-                    return;
-                }
+        function renderMonthlyChart(data) {
+            const ctx = document.getElementById('monthlyChart').getContext('2d');
+            const labels = Object.keys(data);
+            const values = Object.values(data);
+            
+            if (labels.length === 0) {
+                document.getElementById('monthlyChart').parentElement.innerHTML = 
+                    '<div class="text-center py-5"><i class="bi bi-inbox display-1 text-muted"></i><h5 class="text-muted mt-3">No data available</h5></div>';
+                return;
+            }
 
-                new Chart(ctx, {
-                    type: 'bar',
-                    data: {
-                        labels: labels,
-                        datasets: [{
-                            label: 'Monthly Spending',
-                            data: values,
-                            backgroundColor: '#36A2EB',
-                            borderColor: '#1E88E5',
-                            borderWidth: 1
-                        }]
-                    },
-                    options: {
-                        responsive: true,
-                        maintainAspectRatio: false,
-                        scales: {
-                            y: {
-                                beginAtZero: true,
-                                ticks: {
-                                    callback: function(value) {
-                                        return '$' + value.toFixed(2);
-                                    }
+            new Chart(ctx, {
+                type: 'bar',
+                data: {
+                    labels: labels,
+                    datasets: [{
+                        label: 'Monthly Spending',
+                        data: values,
+                        backgroundColor: '#36A2EB',
+                        borderColor: '#1E88E5',
+                        borderWidth: 1
+                    }]
+                },
+                options: {
+                    responsive: true,
+                    maintainAspectRatio: false,
+                    scales: {
+                        y: {
+                            beginAtZero: true,
+                            ticks: {
+                                callback: function(value) {
+                                    return '$' + value.toFixed(2);
                                 }
                             }
+                        }
+                    },
+                    plugins: {
+                        legend: {
+                            display: false
                         },
-                        plugins: {
-                            legend: {
-                                display: false
-                            },
-                            tooltip: {
-                                callbacks: {
-                                    label: function(context) {
-                                        return 'Amount: $' + context.parsed.y.toFixed(2);
-                                    }
+                        tooltip: {
+                            callbacks: {
+                                label: function(context) {
+                                    return 'Amount: $' + context.parsed.y.toFixed(2);
                                 }
                             }
                         }
                     }
-                });
+                }
+            });
+        }
+
+        function showChartError(canvasId) {
+            document.getElementById(canvasId).parentElement.innerHTML = 
+                '<div class="text-center py-5 text-danger"><i class="bi bi-exclamation-triangle display-1"></i><h5 class="mt-3">Error loading chart</h5></div>';
+        }
+
+        // One request for both charts; the server answers 304 while the dashboard is unchanged
+        fetch('${pageContext.request.contextPath}/api/dashboard/summary')
+            .then(response => response.json())
+            .then(summary => {
+                renderCategoryChart(summary.spendingByCategory);
+                renderMonthlyChart(summary.spendingByMonth);
             })
             .catch(error => {
-                console.error('Error fetching monthly data:', error);
-                document.getElementById('monthlyChart').parentElement.innerHTML = 
-                    '<div class="text-center py-5 text-danger"><i class="bi bi-exclamation-triangle display-1"></i><h5 class="mt-3">Error loading chart</h5></div>';
+                console.error('Error fetching dashboard summary:', error);
+                showChartError('categoryChart');
+                showChartError('monthlyChart');
             });
     </script>
 </body>
@@ -0,0 +1,98 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.example.dao.InMemorySessionDAO;
+import org.example.model.AuthIdentity;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthFilterTest {
+
+    private final SessionTokenService tokens = new SessionTokenService(true,
+        "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1), Clock.systemUTC());
+    private final SessionTokenService noTokens = new SessionTokenService(false, "", 60);
+    private final SessionStoreService containerSessions = sessionStore(null);
+
+    @Test
+    void testSessionModeLetsSignedInSessionsThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userId", 3L);
+        request.setSession(session);
+        MockFilterChain chain = new MockFilterChain();
+
+        new AuthFilter(noTokens, containerSessions).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void testValidTokenPutsTheIdentityOnTheRequestWithoutASession() throws Exception {
+        User user = new User("user1", "hash");
+        user.setId(2L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+        request.setCookies(new Cookie(SessionTokenService.COOKIE_NAME, tokens.issue(user)));
+        MockFilterChain chain = new MockFilterChain();
+
+        new AuthFilter(tokens, containerSessions).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(new AuthIdentity(2L, UserRole.USER, "user1"), request.getAttribute(AuthIdentity.REQUEST_ATTRIBUTE));
+        assertSame(request, ((HttpServletRequestWrapper) chain.getRequest()).getRequest());
+        assertNull(((HttpServletRequest) chain.getRequest()).getSession());
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void testMissingOrForgedTokenRedirectsToLogin() throws Exception {
+        for (Cookie[] cookies : new Cookie[][]{null, {new Cookie(SessionTokenService.COOKIE_NAME, "forged.token")}}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+            if (cookies != null) {
+                request.setCookies(cookies);
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FilterChain chain = (req, res) -> fail("request should not reach the application");
+
+            new AuthFilter(tokens, containerSessions).doFilter(request, response, chain);
+
+            assertEquals("/login", response.getRedirectedUrl());
+        }
+    }
+
+    @Test
+    void testStoredSessionCookiePutsTheIdentityOnTheRequest() throws Exception {
+        SessionStoreService store = sessionStore(new InMemorySessionDAO());
+        User user = new User("admin", "hash");
+        user.setId(1L);
+        user.setRole(UserRole.ADMIN);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+        request.setCookies(new Cookie(SessionStoreService.COOKIE_NAME, store.create(user)));
+        MockFilterChain chain = new MockFilterChain();
+
+        new AuthFilter(noTokens, store).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(new AuthIdentity(1L, UserRole.ADMIN, "admin"), request.getAttribute(AuthIdentity.REQUEST_ATTRIBUTE));
+        assertNull(((HttpServletRequest) chain.getRequest()).getSession());
+    }
+
+    private static SessionStoreService sessionStore(InMemorySessionDAO sessionDAO) {
+        return new SessionStoreService(sessionDAO, Duration.ofMinutes(30), Duration.ofSeconds(30), 100,
+            Clock.systemUTC(), Ticker.systemTicker());
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.UserDAO;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DaoMetricsPostProcessorTest {
+
+    @Mock
+    private ExpenseDAO expenseDAO;
+
+    @Mock
+    private UserDAO userDAO;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private MeterRegistry registry;
+    private DaoMetricsPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(registry);
+        postProcessor = new DaoMetricsPostProcessor(meterRegistryProvider);
+    }
+
+    @Test
+    void testTimesCallsAndRecordsReturnedRows() {
+        when(expenseDAO.findAllByUserId(1L)).thenReturn(List.of(expense(), expense(), expense()));
+        ExpenseDAO metered = (ExpenseDAO) postProcessor.postProcessAfterInitialization(expenseDAO, "expenseDAOImpl");
+
+        assertEquals(3, metered.findAllByUserId(1L).size());
+        metered.findAllByUserId(1L);
+
+        Timer timer = registry.get("dao.query").tags("dao", "ExpenseDAO", "method", "findAllByUserId", "outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertEquals(2, registry.get("dao.query.rows").tags("method", "findAllByUserId").summary().count());
+        assertEquals(6.0, registry.get("dao.query.rows").tags("method", "findAllByUserId").summary().totalAmount());
+    }
+
+    @Test
+    void testCountsStreamedRowsAndSingleEntities() {
+        doAnswer(invocation -> {
+            Consumer<Expense> consumer = invocation.getArgument(1);
+            consumer.accept(expense());
+            consumer.accept(expense());
+            return null;
+        }).when(expenseDAO).streamByQuery(any(), any());
+        when(userDAO.findByUsername("missing")).thenReturn(null);
+        ExpenseDAO meteredExpenses = (ExpenseDAO) postProcessor.postProcessAfterInitialization(expenseDAO, "expenseDAOImpl");
+        UserDAO meteredUsers = (UserDAO) postProcessor.postProcessAfterInitialization(userDAO, "userDAOImpl");
+
+        List<Expense> streamed = new ArrayList<>();
+        meteredExpenses.streamByQuery(ExpenseQuery.forUser(1L), streamed::add);
+        User user = meteredUsers.findByUsername("missing");
+
+        assertEquals(2, streamed.size());
+        assertNull(user);
+        assertEquals(2.0, registry.get("dao.query.rows").tags("method", "streamByQuery").summary().totalAmount());
+        assertEquals(0.0, registry.get("dao.query.rows").tags("dao", "UserDAO", "method", "findByUsername").summary().totalAmount());
+        assertEquals(1, registry.get("dao.query.rows").tags("method", "findByUsername").summary().count());
+    }
+
+    @Test
+    void testFailuresAreTimedAndCountedThenRethrown() {
+        doThrow(new RuntimeException("Error saving expense")).when(expenseDAO).save(any());
+        ExpenseDAO metered = (ExpenseDAO) postProcessor.postProcessAfterInitialization(expenseDAO, "expenseDAOImpl");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> metered.save(expense()));
+
+        assertEquals("Error saving expense", thrown.getMessage());
+        assertEquals(1, registry.get("dao.query").tags("method", "save", "outcome", "error").timer().count());
+        assertEquals(1.0, registry.get("dao.query.errors").tags("method", "save", "exception", "RuntimeException").counter().count());
+        assertNull(registry.find("dao.query.rows").tags("method", "save").summary());
+    }
+
+    @Test
+    void testLeavesOtherBeansUnwrapped() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "other"));
+    }
+
+    private Expense expense() {
+        return new Expense("Lunch", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 15), 1L);
+    }
+}
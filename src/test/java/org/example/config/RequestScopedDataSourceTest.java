@@ -0,0 +1,112 @@
+package org.example.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RequestScopedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection pooled;
+
+    private RequestScopedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(pool.getConnection()).thenReturn(pooled);
+        dataSource = new RequestScopedDataSource(pool);
+    }
+
+    @Test
+    void testCallsWithinAScopeShareOneConnection() throws SQLException {
+        try (RequestScopedDataSource.ConnectionScope scope = dataSource.openScope()) {
+            for (int i = 0; i < 3; i++) {
+                try (Connection conn = dataSource.getConnection()) {
+                    conn.prepareStatement("SELECT 1");
+                }
+            }
+            verify(pooled, never()).close();
+        }
+
+        verify(pool, times(1)).getConnection();
+        verify(pooled, times(3)).prepareStatement("SELECT 1");
+        verify(pooled, times(1)).close();
+    }
+
+    @Test
+    void testClosedHandleCannotBeUsed() throws SQLException {
+        try (RequestScopedDataSource.ConnectionScope scope = dataSource.openScope()) {
+            Connection conn = dataSource.getConnection();
+            conn.close();
+
+            assertTrue(conn.isClosed());
+            assertThrows(SQLException.class, () -> conn.prepareStatement("SELECT 1"));
+            assertFalse(dataSource.getConnection().isClosed());
+        }
+    }
+
+    @Test
+    void testScopeWithoutQueriesBorrowsNothing() throws SQLException {
+        dataSource.openScope().close();
+
+        verify(pool, never()).getConnection();
+    }
+
+    @Test
+    void testNestedScopeJoinsTheOuterOne() throws SQLException {
+        try (RequestScopedDataSource.ConnectionScope outer = dataSource.openScope()) {
+            try (RequestScopedDataSource.ConnectionScope inner = dataSource.openScope()) {
+                dataSource.getConnection().close();
+            }
+            verify(pooled, never()).close();
+            dataSource.getConnection().close();
+        }
+
+        verify(pool, times(1)).getConnection();
+        verify(pooled, times(1)).close();
+    }
+
+    @Test
+    void testOutsideAScopeEveryCallBorrowsFromThePool() throws SQLException {
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+
+        verify(pool, times(2)).getConnection();
+        verify(pooled, times(2)).close();
+    }
+
+    @Test
+    void testFilterReturnsTheConnectionWhenTheRequestFails() throws SQLException {
+        RequestConnectionFilter filter = new RequestConnectionFilter(dataSource);
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(new MockHttpServletRequest(),
+            new MockHttpServletResponse(), (request, response) -> {
+                try (Connection conn = dataSource.getConnection()) {
+                    conn.prepareStatement("SELECT 1");
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+                dataSource.getConnection().close();
+                throw new IllegalStateException("Error rendering page");
+            }));
+
+        verify(pool, times(1)).getConnection();
+        verify(pooled, times(1)).close();
+        dataSource.getConnection().close();
+        verify(pool, times(2)).getConnection();
+    }
+}
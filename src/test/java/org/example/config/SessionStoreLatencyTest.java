@@ -0,0 +1,172 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.example.dao.InMemorySessionDAO;
+import org.example.dao.SessionDAO;
+import org.example.dao.SessionDAOImpl;
+import org.example.model.AuthIdentity;
+import org.example.model.StoredSession;
+import org.example.model.User;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency AuthFilter adds per request with the external session store, against Tomcat-style HttpSession
+ * lookups, on in-memory H2 through the real migrations. Logs the median per request for each setup; the
+ * assertions only check round trips, which do not depend on the machine.
+ */
+public class SessionStoreLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreLatencyTest.class);
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 5_000;
+
+    private final SessionTokenService noTokens = new SessionTokenService(false, "", 60);
+    private final FilterChain controller = (req, res) -> { };
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(database).load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+        // The migrations create user 2
+        user = new User("user1", "hash");
+        user.setId(2L);
+    }
+
+    @Test
+    void testNearCacheServesRequestsWithoutRoundTrips() throws Exception {
+        CountingSessionDAO table = new CountingSessionDAO(new SessionDAOImpl(jdbcTemplate));
+        SessionStoreService loginNode = store(table, Duration.ofSeconds(30));
+        SessionStoreService otherNode = store(table, Duration.ofSeconds(30));
+        String sessionId = loginNode.create(user);
+
+        long container = medianNanos(new AuthFilter(noTokens, store(null, Duration.ZERO)), containerRequest());
+        SessionStoreService memoryStore = store(new InMemorySessionDAO(), Duration.ZERO);
+        long memory = medianNanos(new AuthFilter(noTokens, memoryStore), storeRequest(memoryStore.create(user)));
+        long nearCache = medianNanos(new AuthFilter(noTokens, otherNode), storeRequest(sessionId));
+        // Only the node that did not create the session read it, and only once
+        assertEquals(1L, table.reads.sum());
+
+        long tableOnly = medianNanos(new AuthFilter(noTokens, store(table, Duration.ZERO)), storeRequest(sessionId));
+        // The uncached store reads on every request
+        assertEquals(1L + WARMUP + REQUESTS, table.reads.sum());
+
+        logger.info("AuthFilter median per request: HttpSession {} ns; added by in-memory store {} ns, "
+                + "JDBC store with near-cache {} ns, JDBC store without near-cache {} ns",
+            container, memory - container, nearCache - container, tableOnly - container);
+    }
+
+    @Test
+    void testJdbcStoreRoundTrip() {
+        SessionDAOImpl sessionDAO = new SessionDAOImpl(jdbcTemplate);
+        SessionStoreService store = store(sessionDAO, Duration.ofSeconds(30));
+
+        String id = store.create(user);
+        StoredSession stored = sessionDAO.findById(id);
+        assertEquals(new AuthIdentity(2L, user.getRole(), "user1"), stored.identity());
+
+        sessionDAO.updateExpiry(id, Instant.EPOCH.plusSeconds(60));
+        assertEquals(Instant.EPOCH.plusSeconds(60), sessionDAO.findById(id).expiresAt());
+        assertEquals(1, sessionDAO.deleteExpired(Instant.EPOCH.plusSeconds(61)));
+        assertNull(sessionDAO.findById(id));
+
+        String other = store.create(user);
+        store.invalidate(other);
+        assertNull(sessionDAO.findById(other));
+    }
+
+    private long medianNanos(AuthFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long[] samples = new long[REQUESTS];
+        for (int i = 0; i < WARMUP + REQUESTS; i++) {
+            long start = System.nanoTime();
+            filter.doFilter(request, response, controller);
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP) {
+                samples[i - WARMUP] = elapsed;
+            }
+        }
+        assertNull(response.getRedirectedUrl(), "request was not authenticated");
+        Arrays.sort(samples);
+        return samples[REQUESTS / 2];
+    }
+
+    private static MockHttpServletRequest containerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userId", 2L);
+        request.setSession(session);
+        return request;
+    }
+
+    private static MockHttpServletRequest storeRequest(String sessionId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+        request.setCookies(new Cookie(SessionStoreService.COOKIE_NAME, sessionId));
+        return request;
+    }
+
+    private static SessionStoreService store(SessionDAO sessionDAO, Duration nearCacheTtl) {
+        return new SessionStoreService(sessionDAO, Duration.ofMinutes(30), nearCacheTtl, 1000,
+            Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    private static final class CountingSessionDAO implements SessionDAO {
+        private final SessionDAO delegate;
+        private final LongAdder reads = new LongAdder();
+
+        CountingSessionDAO(SessionDAO delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void save(StoredSession session) {
+            delegate.save(session);
+        }
+
+        @Override
+        public StoredSession findById(String id) {
+            reads.increment();
+            return delegate.findById(id);
+        }
+
+        @Override
+        public void updateExpiry(String id, Instant expiresAt) {
+            delegate.updateExpiry(id, expiresAt);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            delegate.deleteById(id);
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            return delegate.deleteExpired(now);
+        }
+    }
+}
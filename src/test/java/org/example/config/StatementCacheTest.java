@@ -0,0 +1,121 @@
+package org.example.config;
+
+import com.mysql.cj.jdbc.MysqlDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dao.ExpenseDAOImpl;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Server prepares and pool checkouts per expense list page on MySQL, through the pool DataSourceConfig builds,
+ * with the driver's statement cache (cachePrepStmts) on and off. Prepares are read from
+ * {@code SHOW SESSION STATUS LIKE 'Com_stmt_prepare'} on the pool's only connection, checkouts from the
+ * {@code hikaricp.connections.acquire} timer.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class StatementCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCacheTest.class);
+    private static final int PAGES = 200;
+    // Totals for the filter, the page itself and the user's overall totals
+    private static final int QUERIES_PER_PAGE = 3;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private final ExpenseQuery query = ExpenseQuery.forUser(2L).withDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30));
+
+    @BeforeAll
+    static void migrate() {
+        MysqlDataSource database = new MysqlDataSource();
+        database.setURL(MYSQL.getJdbcUrl());
+        database.setUser(MYSQL.getUsername());
+        database.setPassword(MYSQL.getPassword());
+        Flyway.configure().dataSource(database).load().migrate();
+    }
+
+    @Test
+    void testCachedStatementsArePreparedOncePerConnection() throws Exception {
+        PageCounts counts = listPages(true);
+
+        assertEquals(0, counts.prepares());
+        assertEquals(PAGES, counts.checkouts());
+    }
+
+    @Test
+    void testUncachedStatementsArePreparedOnEveryQuery() throws Exception {
+        PageCounts counts = listPages(false);
+
+        assertTrue(counts.prepares() >= (long) QUERIES_PER_PAGE * PAGES, () -> counts.prepares() + " prepares");
+        assertEquals(PAGES, counts.checkouts());
+    }
+
+    private PageCounts listPages(boolean cachePrepStmts) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        try (RequestScopedDataSource dataSource = new DataSourceConfig().dataSource(MYSQL.getJdbcUrl(),
+                MYSQL.getUsername(), MYSQL.getPassword(), "com.mysql.cj.jdbc.Driver", 1, 30_000,
+                cachePrepStmts, true, 250, 2048, beans.getBeanProvider(MeterRegistry.class))) {
+            ExpenseDAOImpl expenseDAO = new ExpenseDAOImpl();
+            ReflectionTestUtils.setField(expenseDAO, "dataSource", dataSource);
+
+            // The first page fills the cache of the pool's only connection
+            listPage(dataSource, expenseDAO);
+            long preparesBefore = preparedOnConnection(dataSource);
+            long checkoutsBefore = checkouts(registry);
+            for (int i = 0; i < PAGES; i++) {
+                listPage(dataSource, expenseDAO);
+            }
+            long checkouts = checkouts(registry) - checkoutsBefore;
+            long prepares = preparedOnConnection(dataSource) - preparesBefore;
+
+            logger.info("cachePrepStmts={}: {} prepares and {} checkouts for {} pages",
+                cachePrepStmts, prepares, checkouts, PAGES);
+            return new PageCounts(prepares, checkouts);
+        }
+    }
+
+    private void listPage(RequestScopedDataSource dataSource, ExpenseDAOImpl expenseDAO) {
+        try (RequestScopedDataSource.ConnectionScope scope = dataSource.openScope()) {
+            expenseDAO.totalsByQuery(query);
+            expenseDAO.findPageByQuery(query, ExpenseSortOrder.DATE, 0, 20);
+            expenseDAO.totalsByUserId(2L);
+        }
+    }
+
+    // A plain statement, so reading the counter does not move it
+    private static long preparedOnConnection(RequestScopedDataSource dataSource) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW SESSION STATUS LIKE 'Com_stmt_prepare'")) {
+            rs.next();
+            return rs.getLong("Value");
+        }
+    }
+
+    private static long checkouts(MeterRegistry registry) {
+        return registry.get("hikaricp.connections.acquire").timer().count();
+    }
+
+    private record PageCounts(long prepares, long checkouts) {
+    }
+}
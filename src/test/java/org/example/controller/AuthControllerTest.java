@@ -0,0 +1,102 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpSession;
+import org.example.model.User;
+import org.example.service.AuthService;
+import org.example.service.SessionStoreService;
+import org.example.service.SessionTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthControllerTest {
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private SessionTokenService tokenService;
+
+    @Mock
+    private SessionStoreService sessionStore;
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private Model model;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final Executor saturated = runnable -> {
+        throw new RejectedExecutionException("full");
+    };
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User("user1", "hash");
+        user.setId(2L);
+        when(authService.authenticateAsync("user1", "user1")).thenReturn(CompletableFuture.completedFuture(user));
+        when(authService.authenticateAsync("user1", "wrong")).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void testSessionIsStoredOnTheWriteExecutor() {
+        when(sessionStore.isEnabled()).thenReturn(true);
+        when(sessionStore.create(user)).thenReturn("session-1");
+        List<Runnable> writes = new ArrayList<>();
+
+        CompletableFuture<String> view = login(writes::add, "user1");
+
+        assertFalse(view.isDone());
+        verify(sessionStore, never()).create(any());
+
+        writes.forEach(Runnable::run);
+
+        assertEquals("redirect:/expenses", view.join());
+        assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).startsWith(SessionStoreService.COOKIE_NAME + "=session-1"));
+    }
+
+    @Test
+    void testFullWriteQueueIsAnsweredWithTooManyRequests() {
+        when(sessionStore.isEnabled()).thenReturn(true);
+
+        assertEquals("login", login(saturated, "user1").join());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        verify(sessionStore, never()).create(any());
+    }
+
+    @Test
+    void testLoginsThatWriteNothingIgnoreTheWriteExecutor() {
+        assertEquals("redirect:/expenses", login(saturated, "user1").join());
+        verify(session).setAttribute("userId", 2L);
+
+        when(sessionStore.isEnabled()).thenReturn(true);
+        assertEquals("login", login(saturated, "wrong").join());
+        verify(model).addAttribute("error", "Invalid username or password");
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    private CompletableFuture<String> login(Executor writeExecutor, String password) {
+        AuthController controller = new AuthController(authService, tokenService, sessionStore, writeExecutor);
+        return controller.login("user1", password, session, model, new MockHttpServletRequest(), response);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpSession;
+import org.example.service.DashboardCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.ui.Model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardControllerTest {
+
+    private static final String ETAG = "\"dashboard-abc-7\"";
+
+    @Mock
+    private DashboardCacheService dashboardCache;
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private Model model;
+
+    private DashboardController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new DashboardController(dashboardCache);
+        when(session.getAttribute("userId")).thenReturn(2L);
+        when(dashboardCache.currentETag(2L)).thenReturn(ETAG);
+        when(dashboardCache.getDashboard(2L)).thenReturn(new DashboardCacheService.UserDashboard(7, ETAG,
+            Map.of("Food", new BigDecimal("40.00")), Map.of("2024-01", new BigDecimal("40.00")),
+            new BigDecimal("40.00"), 2));
+    }
+
+    @Test
+    void testCategoryDataCarriesETag() {
+        ResponseEntity<Map<String, BigDecimal>> response = controller.getCategoryData(null, session);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(Map.of("Food", new BigDecimal("40.00")), response.getBody());
+        assertTrue(response.getHeaders().getCacheControl().contains("no-cache"));
+    }
+
+    @Test
+    void testSummaryCombinesTotalsAndBreakdowns() {
+        ResponseEntity<DashboardController.DashboardSummary> response = controller.getSummary(null, session);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        DashboardController.DashboardSummary summary = response.getBody();
+        assertNotNull(summary);
+        assertEquals(new BigDecimal("40.00"), summary.totalSpending());
+        assertEquals(2, summary.totalExpenses());
+        assertEquals(Map.of("Food", new BigDecimal("40.00")), summary.spendingByCategory());
+        assertEquals(Map.of("2024-01", new BigDecimal("40.00")), summary.spendingByMonth());
+        verify(dashboardCache, times(1)).getDashboard(2L);
+    }
+
+    @Test
+    void testMatchingIfNoneMatchReturnsNotModifiedWithoutLoading() {
+        when(dashboardCache.isNotModified(ETAG, ETAG)).thenReturn(true);
+
+        ResponseEntity<Map<String, BigDecimal>> response = controller.getMonthlyData(ETAG, session);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(dashboardCache, never()).getDashboard(any());
+    }
+
+    @Test
+    void testStaleIfNoneMatchReturnsData() {
+        when(dashboardCache.isNotModified(ETAG, "\"dashboard-abc-6\"")).thenReturn(false);
+
+        ResponseEntity<Map<String, BigDecimal>> response = controller.getMonthlyData("\"dashboard-abc-6\"", session);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("2024-01", new BigDecimal("40.00")), response.getBody());
+    }
+
+    @Test
+    void testDashboardPageUsesSnapshotTotals() {
+        assertEquals("dashboard", controller.dashboard(model, session));
+
+        verify(model).addAttribute("totalSpending", new BigDecimal("40.00"));
+        verify(model).addAttribute("totalExpenses", 2L);
+    }
+
+    @Test
+    void testDataWithoutSessionIsEmpty() {
+        when(session.getAttribute("userId")).thenReturn(null);
+
+        ResponseEntity<Map<String, BigDecimal>> response = controller.getCategoryData(null, session);
+
+        assertEquals(Map.of(), response.getBody());
+        verifyNoInteractions(dashboardCache);
+    }
+}
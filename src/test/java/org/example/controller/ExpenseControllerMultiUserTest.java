@@ -172,6 +172,60 @@ public class ExpenseControllerMultiUserTest {
         verify(crudService, never()).saveExpense(any());
     }
 
+    @Test
+    void testCreateExpensesInBulk_AssignsSessionUserAndReturnsIds() {
+        Long userId = 2L;
+        when(session.getAttribute("userId")).thenReturn(userId);
+        doAnswer(invocation -> {
+            List<Expense> saved = invocation.getArgument(0);
+            long nextId = 10;
+            for (Expense expense : saved) {
+                expense.setId(nextId++);
+            }
+            return saved;
+        }).when(crudService).saveExpenses(anyList());
+        List<Expense> request = List.of(
+            createExpenseForUser("Lunch <b>", new BigDecimal("12.00"), ExpenseCategory.FOOD, LocalDate.now(), 99L),
+            createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), 99L)
+        );
+
+        ResponseEntity<List<Long>> response = controller.createExpenses(request, session);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(List.of(10L, 11L), response.getBody());
+        verify(crudService).saveExpenses(argThat(saved -> saved.size() == 2
+            && saved.stream().allMatch(expense -> userId.equals(expense.getUserId()) && expense.getId() != null)
+            && saved.get(0).getDescription().equals("Lunch &lt;b&gt;")));
+        verify(crudService, never()).saveExpense(any());
+    }
+
+    @Test
+    void testCreateExpensesInBulk_RejectsWholeRequestOnInvalidEntry() {
+        when(session.getAttribute("userId")).thenReturn(1L);
+        Expense invalid = new Expense();
+        List<Expense> request = Arrays.asList(
+            createExpenseForUser("Lunch", new BigDecimal("12.00"), ExpenseCategory.FOOD, LocalDate.now(), 1L),
+            invalid
+        );
+
+        ResponseEntity<List<Long>> response = controller.createExpenses(request, session);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(crudService, never()).saveExpenses(any());
+    }
+
+    @Test
+    void testCreateExpensesInBulk_RejectsOversizedRequest() {
+        when(session.getAttribute("userId")).thenReturn(1L);
+        Expense expense = createExpenseForUser("Lunch", new BigDecimal("12.00"), ExpenseCategory.FOOD, LocalDate.now(), 1L);
+        List<Expense> request = java.util.Collections.nCopies(ExpenseController.MAX_BULK_EXPENSES + 1, expense);
+
+        ResponseEntity<List<Long>> response = controller.createExpenses(request, session);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        verify(crudService, never()).saveExpenses(any());
+    }
+
     private Expense createExpenseForUser(String description, BigDecimal amount, ExpenseCategory category, LocalDate date, Long userId) {
         Expense expense = new Expense(description, amount, category, date, userId);
         expense.setId(1L);
@@ -1,6 +1,9 @@
 package org.example.controller;
 
 import jakarta.servlet.http.HttpSession;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
+import org.example.dao.ExpenseTotals;
 import org.example.dao.UserDAO;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
@@ -8,7 +11,6 @@ import org.example.model.UserRole;
 import org.example.service.ExpenseCrudService;
 import org.example.service.ExpenseFilterService;
 import org.example.service.ExpensePaginationService;
-import org.example.service.ExpenseSortService;
 import org.example.util.SessionHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,8 +35,6 @@ public class WebExpenseControllerAdminTest {
     @Mock
     private ExpenseFilterService filterService;
     @Mock
-    private ExpenseSortService sortService;
-    @Mock
     private ExpensePaginationService paginationService;
     @Mock
     private ExpenseController expenseController;
@@ -50,7 +50,7 @@ public class WebExpenseControllerAdminTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        controller = new WebExpenseController(crudService, filterService, sortService, paginationService, expenseController, userDAO);
+        controller = new WebExpenseController(crudService, filterService, paginationService, expenseController, userDAO);
     }
 
     @Test
@@ -62,6 +62,7 @@ public class WebExpenseControllerAdminTest {
                 createExpense(2L, "User1 expense", new BigDecimal("20.00"), 2L),
                 createExpense(3L, "User2 expense", new BigDecimal("30.00"), 3L)
         );
+        ExpenseQuery query = ExpenseQuery.all();
 
         try (MockedStatic<SessionHelper> sessionHelper = mockStatic(SessionHelper.class)) {
 
@@ -75,9 +76,9 @@ public class WebExpenseControllerAdminTest {
             sessionHelper.when(() -> SessionHelper.getUserRole(session))
                     .thenReturn(UserRole.ADMIN);
 
-            when(crudService.getAllExpenses()).thenReturn(allExpenses);
-
-            when(paginationService.getPageFromList(any(), eq(0), eq(10)))
+            when(filterService.buildQuery(null, null, null, null)).thenReturn(query);
+            when(crudService.getTotals(query)).thenReturn(new ExpenseTotals(3, new BigDecimal("60.00")));
+            when(paginationService.getExpensesPage(eq(query), any(), eq(0), eq(10), eq(3L)))
                     .thenReturn(new ExpensePaginationService.PageResult<>(allExpenses, 0, 10, 3, 1));
 
             String result = controller.listExpenses(
@@ -89,10 +90,12 @@ public class WebExpenseControllerAdminTest {
 
             assertEquals("list", result);
 
-            // ✅ Admin branch
-            verify(crudService).getAllExpenses();
+            // ✅ Admin branch queries across all users
+            verify(filterService).buildQuery(null, null, null, null);
+            verify(model).addAttribute("totalAmount", new BigDecimal("60.00"));
 
-            // ✅ User branch must not be called
+            // ✅ Nothing loads full histories
+            verify(crudService, never()).getAllExpenses();
             verify(crudService, never()).getAllExpensesByUserId(any());
         }
     }
@@ -106,20 +109,22 @@ public class WebExpenseControllerAdminTest {
             createExpense(2L, "User expense 1", new BigDecimal("15.00"), regularUserId),
             createExpense(4L, "User expense 2", new BigDecimal("25.00"), regularUserId)
         );
+        ExpenseQuery query = ExpenseQuery.forUser(regularUserId);
 
         try (MockedStatic<SessionHelper> sessionHelper = mockStatic(SessionHelper.class)) {
             sessionHelper.when(() -> SessionHelper.getUserId(session)).thenReturn(regularUserId);
             sessionHelper.when(() -> SessionHelper.isAdmin(session)).thenReturn(false);
 
-            when(crudService.getAllExpensesByUserId(regularUserId)).thenReturn(userExpenses);
-            when(paginationService.getPageFromList(any(), eq(0), eq(10)))
+            when(filterService.buildQuery(null, null, null, regularUserId)).thenReturn(query);
+            when(crudService.getTotals(query)).thenReturn(new ExpenseTotals(2, new BigDecimal("40.00")));
+            when(paginationService.getExpensesPage(eq(query), any(), eq(0), eq(10), eq(2L)))
                 .thenReturn(new ExpensePaginationService.PageResult<>(userExpenses, 0, 10, 2, 1));
             String userId= String.valueOf(regularUserId);
             String result = controller.listExpenses(null, null, null, null, userId,0, 10, model, session);
 
             assertEquals("list", result);
-            verify(crudService).getAllExpensesByUserId(regularUserId);
-            verify(crudService, never()).getAllExpenses();
+            verify(filterService).buildQuery(null, null, null, regularUserId);
+            verify(filterService, never()).buildQuery(any(), any(), any(), isNull());
         }
     }
 
@@ -131,20 +136,43 @@ public class WebExpenseControllerAdminTest {
             createExpense(1L, "Admin food", new BigDecimal("10.00"), adminUserId),
             createExpense(2L, "User1 food", new BigDecimal("20.00"), 2L)
         );
+        ExpenseQuery query = ExpenseQuery.all().withCategories(List.of(ExpenseCategory.FOOD));
 
         try (MockedStatic<SessionHelper> sessionHelper = mockStatic(SessionHelper.class)) {
             sessionHelper.when(() -> SessionHelper.getUserId(session)).thenReturn(adminUserId);
             sessionHelper.when(() -> SessionHelper.isAdmin(session)).thenReturn(true);
 
-            when(filterService.getFilteredExpenses(null, null, category)).thenReturn(filteredExpenses);
-            when(paginationService.getPageFromList(any(), eq(0), eq(10)))
+            when(filterService.buildQuery(null, null, category, null)).thenReturn(query);
+            when(crudService.getTotals(query)).thenReturn(new ExpenseTotals(2, new BigDecimal("30.00")));
+            when(paginationService.getExpensesPage(eq(query), any(), eq(0), eq(10), eq(2L)))
                 .thenReturn(new ExpensePaginationService.PageResult<>(filteredExpenses, 0, 10, 2, 1));
             String userId= "";
             String result = controller.listExpenses(null, null, category, null, userId,0, 10, model, session);
 
             assertEquals("list", result);
-            verify(filterService).getFilteredExpenses(null, null, category);
-            verify(filterService, never()).getFilteredExpensesByUserId(any(), any(), any(), any());
+            verify(filterService).buildQuery(null, null, category, null);
+            verify(filterService, never()).buildQuery(any(), any(), any(), eq(adminUserId));
+        }
+    }
+
+    @Test
+    void testListExpenses_AdminFilteredBySelectedUser() {
+        Long adminUserId = 1L;
+        Long selectedUserId = 3L;
+        ExpenseQuery query = ExpenseQuery.forUser(selectedUserId);
+
+        try (MockedStatic<SessionHelper> sessionHelper = mockStatic(SessionHelper.class)) {
+            sessionHelper.when(() -> SessionHelper.getUserId(session)).thenReturn(adminUserId);
+            sessionHelper.when(() -> SessionHelper.isAdmin(session)).thenReturn(true);
+
+            when(filterService.buildQuery(null, null, null, selectedUserId)).thenReturn(query);
+            when(crudService.getTotals(query)).thenReturn(ExpenseTotals.EMPTY);
+            when(paginationService.getExpensesPage(eq(query), any(), eq(0), eq(10), eq(0L)))
+                .thenReturn(new ExpensePaginationService.PageResult<>(List.of(), 0, 10, 0, 0));
+            String result = controller.listExpenses(null, null, null, null, String.valueOf(selectedUserId), 0, 10, model, session);
+
+            assertEquals("list", result);
+            verify(filterService).buildQuery(null, null, null, selectedUserId);
         }
     }
 
@@ -155,21 +183,22 @@ public class WebExpenseControllerAdminTest {
         List<Expense> filteredUserExpenses = List.of(
                 createExpense(3L, "User transport", new BigDecimal("5.00"), regularUserId)
         );
+        ExpenseQuery query = ExpenseQuery.forUser(regularUserId).withCategories(List.of(ExpenseCategory.TRANSPORT));
 
         try (MockedStatic<SessionHelper> sessionHelper = mockStatic(SessionHelper.class)) {
             sessionHelper.when(() -> SessionHelper.getUserId(session)).thenReturn(regularUserId);
             sessionHelper.when(() -> SessionHelper.isAdmin(session)).thenReturn(false);
 
-            when(filterService.getFilteredExpensesByUserId(null, null, category, regularUserId))
-                .thenReturn(filteredUserExpenses);
-            when(paginationService.getPageFromList(any(), eq(0), eq(10)))
+            when(filterService.buildQuery(null, null, category, regularUserId)).thenReturn(query);
+            when(crudService.getTotals(query)).thenReturn(new ExpenseTotals(1, new BigDecimal("5.00")));
+            when(paginationService.getExpensesPage(eq(query), eq(ExpenseSortOrder.DATE), eq(0), eq(10), eq(1L)))
                 .thenReturn(new ExpensePaginationService.PageResult<>(filteredUserExpenses, 0, 10, 1, 1));
             String userId= String.valueOf(regularUserId);
-            String result = controller.listExpenses(null, null, category, null, userId,0, 10, model, session);
+            String result = controller.listExpenses(null, null, category, "date", userId,0, 10, model, session);
 
             assertEquals("list", result);
-            verify(filterService).getFilteredExpensesByUserId(null, null, category, regularUserId);
-            verify(filterService, never()).getFilteredExpenses(any(), any(), any());
+            verify(filterService).buildQuery(null, null, category, regularUserId);
+            verify(model).addAttribute("expenses", filteredUserExpenses);
         }
     }
 
@@ -1,12 +1,14 @@
 package org.example.controller;
 
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
+import org.example.dao.ExpenseTotals;
 import org.example.dao.UserDAO;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.example.service.ExpenseCrudService;
 import org.example.service.ExpenseFilterService;
 import org.example.service.ExpensePaginationService;
-import org.example.service.ExpenseSortService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,9 +33,6 @@ class WebExpenseControllerTest {
     @Mock
     private ExpenseFilterService filterService;
     
-    @Mock
-    private ExpenseSortService sortService;
-
     @Mock
     private ExpensePaginationService expensePaginationService;
 
@@ -55,7 +54,7 @@ class WebExpenseControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        webController = new WebExpenseController(expenseCrudService, filterService, sortService, expensePaginationService, expenseController, user);
+        webController = new WebExpenseController(expenseCrudService, filterService, expensePaginationService, expenseController, user);
     }
 
     @Test
@@ -65,17 +64,19 @@ class WebExpenseControllerTest {
         String startDate = "2024-01-01";
         String endDate = "2024-01-31";
         Expense expense = new Expense("Test", new BigDecimal("50.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 15));
+        ExpenseQuery query = ExpenseQuery.forUser(userId).withDateRange(LocalDate.parse(startDate), LocalDate.parse(endDate));
         ExpensePaginationService.PageResult<Expense> pageResult = 
             new ExpensePaginationService.PageResult<>(List.of(expense), 0, 10, 1, 1);
         
-        when(filterService.getFilteredExpensesByUserId(LocalDate.parse(startDate), LocalDate.parse(endDate), null, userId))
-                .thenReturn(List.of(expense));
-        when(expensePaginationService.getPageFromList(List.of(expense), 0, 10)).thenReturn(pageResult);
+        when(filterService.buildQuery(LocalDate.parse(startDate), LocalDate.parse(endDate), null, userId)).thenReturn(query);
+        when(expenseCrudService.getTotals(query)).thenReturn(new ExpenseTotals(1, new BigDecimal("50.00")));
+        when(expensePaginationService.getExpensesPage(query, ExpenseSortOrder.DEFAULT, 0, 10, 1)).thenReturn(pageResult);
         String userIdstr = String.valueOf(this.userId);
         String result = webController.listExpenses(startDate, endDate, null, null, userIdstr, 0, 10, model, session);
 
         assertEquals("list", result);
-        verify(filterService).getFilteredExpensesByUserId(LocalDate.parse(startDate), LocalDate.parse(endDate), null, userId);
+        verify(filterService).buildQuery(LocalDate.parse(startDate), LocalDate.parse(endDate), null, userId);
+        verify(expenseCrudService, never()).getAllExpensesByUserId(any());
         verify(model).addAttribute("expenses", List.of(expense));
         verify(model).addAttribute("totalAmount", new BigDecimal("50.00"));
         verify(model).addAttribute("startDate", startDate);
@@ -87,16 +88,18 @@ class WebExpenseControllerTest {
         when(session.getAttribute("userId")).thenReturn(userId);
         
         Expense expense = new Expense("Test", new BigDecimal("50.00"), ExpenseCategory.FOOD, LocalDate.now());
+        ExpenseQuery query = ExpenseQuery.forUser(userId);
         ExpensePaginationService.PageResult<Expense> pageResult = 
             new ExpensePaginationService.PageResult<>(List.of(expense), 0, 10, 1, 1);
         
-        when(expenseCrudService.getAllExpensesByUserId(userId)).thenReturn(List.of(expense));
-        when(expensePaginationService.getPageFromList(List.of(expense), 0, 10)).thenReturn(pageResult);
+        when(filterService.buildQuery(null, null, null, userId)).thenReturn(query);
+        when(expenseCrudService.getTotals(query)).thenReturn(new ExpenseTotals(1, new BigDecimal("50.00")));
+        when(expensePaginationService.getExpensesPage(query, ExpenseSortOrder.AMOUNT, 0, 10, 1)).thenReturn(pageResult);
         String userIdstr = String.valueOf(this.userId);
-        String result = webController.listExpenses(null, null, null, null,userIdstr, 0, 10, model, session);
+        String result = webController.listExpenses(null, null, null, "amount", userIdstr, 0, 10, model, session);
 
         assertEquals("list", result);
-        verify(expenseCrudService).getAllExpensesByUserId(userId);
+        verify(expensePaginationService).getExpensesPage(query, ExpenseSortOrder.AMOUNT, 0, 10, 1);
         verify(model).addAttribute("expenses", List.of(expense));
         verify(model).addAttribute("totalAmount", new BigDecimal("50.00"));
     }
@@ -137,12 +140,31 @@ class WebExpenseControllerTest {
         
         Expense mockExpense = new Expense("Random", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.now());
         mockExpense.setId(1L);
+        ExpenseQuery query = ExpenseQuery.forUser(userId);
         when(expenseCrudService.addRandomExpenseForUser(userId)).thenReturn(mockExpense);
-        when(expenseCrudService.getAllExpensesByUserId(userId)).thenReturn(List.of(mockExpense));
+        when(filterService.buildQuery(null, null, null, userId)).thenReturn(query);
+        when(expensePaginationService.findPageOf(mockExpense, query, ExpenseSortOrder.AMOUNT, 10)).thenReturn(3);
         
-        String result = webController.addRandomExpense(null, null, null, null, 0, 10, session);
-        assertTrue(result.startsWith("redirect:/expenses?"));
+        String result = webController.addRandomExpense(null, null, null, "amount", 0, 10, session);
+        assertEquals("redirect:/expenses?sortBy=amount&page=3&size=10", result);
         verify(expenseCrudService).addRandomExpenseForUser(userId);
+        // The page comes from a rank query, not from loading and sorting the whole list
+        verify(expenseCrudService, never()).getAllExpensesByUserId(any());
+        verify(filterService, never()).getFilteredExpensesByUserId(any(), any(), any(), any());
+    }
+
+    @Test
+    void testAdd30RandomExpensesRedirectsByCount() {
+        when(session.getAttribute("userId")).thenReturn(userId);
+        ExpenseQuery query = ExpenseQuery.forUser(userId);
+        when(filterService.buildQuery(null, null, null, userId)).thenReturn(query);
+        when(expenseCrudService.countExpenses(query)).thenReturn(45L);
+
+        String result = webController.add30RandomExpenses(null, null, null, null, 0, 10, session);
+
+        assertEquals("redirect:/expenses?page=3&size=10", result);
+        verify(expenseCrudService).addMultipleRandomExpensesForUser(userId, 30);
+        verify(expenseCrudService, never()).getAllExpensesByUserId(any());
     }
 
     @Test
@@ -0,0 +1,162 @@
+package org.example.dao;
+
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingExpenseDAOTest {
+
+    @Mock
+    private ExpenseDAO delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CachingExpenseDAO expenseDAO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        expenseDAO = new CachingExpenseDAO(delegate, 100, Duration.ofMinutes(10), nanos::get);
+    }
+
+    @Test
+    void testRepeatedLookupsHitTheDatabaseOnce() {
+        when(delegate.findByIdAndUserId(5L, 2L)).thenReturn(expense(5L, 2L, "Lunch"));
+
+        Expense first = expenseDAO.findByIdAndUserId(5L, 2L);
+        Expense second = expenseDAO.findByIdAndUserId(5L, 2L);
+
+        assertEquals("Lunch", first.getDescription());
+        assertEquals("Lunch", second.getDescription());
+        verify(delegate, times(1)).findByIdAndUserId(5L, 2L);
+    }
+
+    @Test
+    void testEntriesAreKeyedPerUser() {
+        when(delegate.findByIdAndUserId(5L, 2L)).thenReturn(expense(5L, 2L, "Lunch"));
+        when(delegate.findByIdAndUserId(5L, 3L)).thenReturn(null);
+
+        assertNotNull(expenseDAO.findByIdAndUserId(5L, 2L));
+        assertNull(expenseDAO.findByIdAndUserId(5L, 3L));
+        assertNull(expenseDAO.findByIdAndUserId(5L, 3L));
+
+        // Misses are not cached, so an expense created later is found straight away
+        verify(delegate, times(2)).findByIdAndUserId(5L, 3L);
+    }
+
+    @Test
+    void testCallersCannotModifyTheCachedExpense() {
+        when(delegate.findByIdAndUserId(5L, 2L)).thenReturn(expense(5L, 2L, "Lunch"));
+
+        expenseDAO.findByIdAndUserId(5L, 2L).setDescription("Edited but never saved");
+
+        assertEquals("Lunch", expenseDAO.findByIdAndUserId(5L, 2L).getDescription());
+    }
+
+    @Test
+    void testWritesEvictTheEntriesTheyTouch() {
+        when(delegate.findByIdAndUserId(anyLong(), anyLong()))
+            .thenAnswer(invocation -> expense(invocation.getArgument(0), invocation.getArgument(1), "Lunch"));
+        expenseDAO.findByIdAndUserId(1L, 2L);
+        expenseDAO.findByIdAndUserId(2L, 2L);
+        expenseDAO.findByIdAndUserId(3L, 2L);
+        expenseDAO.findByIdAndUserId(4L, 3L);
+
+        expenseDAO.update(expense(1L, 2L, "Dinner"));
+        expenseDAO.deleteByIdAndUserId(2L, 2L);
+        expenseDAO.findByIdAndUserId(1L, 2L);
+        expenseDAO.findByIdAndUserId(2L, 2L);
+        expenseDAO.findByIdAndUserId(3L, 2L);
+        expenseDAO.findByIdAndUserId(4L, 3L);
+
+        verify(delegate, times(2)).findByIdAndUserId(1L, 2L);
+        verify(delegate, times(2)).findByIdAndUserId(2L, 2L);
+        verify(delegate, times(1)).findByIdAndUserId(3L, 2L);
+        verify(delegate, times(1)).findByIdAndUserId(4L, 3L);
+
+        expenseDAO.deleteAllByUserId(2L);
+        expenseDAO.findByIdAndUserId(3L, 2L);
+        expenseDAO.findByIdAndUserId(4L, 3L);
+
+        verify(delegate, times(2)).findByIdAndUserId(3L, 2L);
+        verify(delegate, times(1)).findByIdAndUserId(4L, 3L);
+    }
+
+    @Test
+    void testEvictsEvenWhenTheWriteFails() {
+        when(delegate.findByIdAndUserId(1L, 2L)).thenReturn(expense(1L, 2L, "Lunch"));
+        doThrow(new RuntimeException("Error updating expense")).when(delegate).update(any());
+        expenseDAO.findByIdAndUserId(1L, 2L);
+
+        assertThrows(RuntimeException.class, () -> expenseDAO.update(expense(1L, 2L, "Dinner")));
+        expenseDAO.findByIdAndUserId(1L, 2L);
+
+        verify(delegate, times(2)).findByIdAndUserId(1L, 2L);
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        when(delegate.findByIdAndUserId(1L, 2L)).thenReturn(expense(1L, 2L, "Lunch"));
+        expenseDAO.findByIdAndUserId(1L, 2L);
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        expenseDAO.findByIdAndUserId(1L, 2L);
+
+        verify(delegate, times(2)).findByIdAndUserId(1L, 2L);
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneLoad() throws Exception {
+        when(delegate.findByIdAndUserId(1L, 2L)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return expense(1L, 2L, "Lunch");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Expense>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(executor.submit(() -> expenseDAO.findByIdAndUserId(1L, 2L)));
+            }
+            for (Future<Expense> lookup : lookups) {
+                assertEquals("Lunch", lookup.get(5, TimeUnit.SECONDS).getDescription());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).findByIdAndUserId(1L, 2L);
+    }
+
+    @Test
+    void testOtherMethodsPassThrough() {
+        when(delegate.countAllByUserId(2L)).thenReturn(7L);
+
+        assertEquals(7L, expenseDAO.countAllByUserId(2L));
+        expenseDAO.findAllByUserId(2L);
+
+        verify(delegate).findAllByUserId(2L);
+    }
+
+    private Expense expense(Long id, Long userId, String description) {
+        Expense expense = new Expense(description, new BigDecimal("10.00"), ExpenseCategory.FOOD,
+            LocalDate.of(2024, 1, 15), userId);
+        expense.setId(id);
+        return expense;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.dao;
+
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingUserDAOTest {
+
+    @Mock
+    private UserDAO delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CachingUserDAO userDAO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDAO = new CachingUserDAO(delegate, nanos::get);
+        when(delegate.findAll()).thenReturn(List.of(user(1L, "admin", UserRole.ADMIN), user(2L, "user1", UserRole.USER)));
+    }
+
+    @Test
+    void testLookupsAreServedFromOneLoad() {
+        assertEquals(1L, userDAO.findByUsername("admin").getId());
+        assertEquals("user1", userDAO.findById(2L).getUsername());
+        assertEquals(List.of("admin", "user1"), userDAO.findAll().stream().map(User::getUsername).toList());
+        assertEquals(UserRole.ADMIN, userDAO.findByUsername("admin").getRole());
+
+        verify(delegate, times(1)).findAll();
+        verify(delegate, never()).findByUsername(anyString());
+        verify(delegate, never()).findById(anyLong());
+    }
+
+    @Test
+    void testReturnedUsersAreCopies() {
+        userDAO.findByUsername("admin").setPassword("changed");
+
+        assertEquals("admin-password", userDAO.findByUsername("admin").getPassword());
+    }
+
+    @Test
+    void testUnknownUsernameFallsBackToTheDatabase() {
+        User created = user(3L, "elsewhere", UserRole.USER);
+        when(delegate.findByUsername("elsewhere")).thenReturn(created);
+
+        assertEquals(3L, userDAO.findByUsername("elsewhere").getId());
+        assertNull(userDAO.findByUsername("nobody"));
+    }
+
+    @Test
+    void testWritesUpdateTheDirectoryWithoutReloading() {
+        userDAO.findAll();
+        when(delegate.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(3L);
+            return user;
+        });
+
+        userDAO.save(new User("newuser", "hash"));
+        userDAO.updatePassword(2L, "rehashed");
+
+        assertEquals(List.of("admin", "newuser", "user1"), userDAO.findAll().stream().map(User::getUsername).toList());
+        assertEquals(3L, userDAO.findByUsername("newuser").getId());
+        assertEquals(UserRole.USER, userDAO.findById(3L).getRole());
+        assertEquals("rehashed", userDAO.findByUsername("user1").getPassword());
+        assertEquals("rehashed", userDAO.findById(2L).getPassword());
+        verify(delegate).updatePassword(2L, "rehashed");
+        verify(delegate, times(1)).findAll();
+    }
+
+    @Test
+    void testWriteDuringRefreshIsNotOverwrittenByTheOlderLoad() throws Exception {
+        userDAO.findAll();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        // The scheduled refresh reads the table before the password change commits
+        when(delegate.findAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(finishLoad.await(5, TimeUnit.SECONDS));
+            return List.of(user(1L, "admin", UserRole.ADMIN), user(2L, "user1", UserRole.USER));
+        });
+        Thread refresh = new Thread(userDAO::refresh);
+        refresh.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Thread write = new Thread(() -> userDAO.updatePassword(2L, "rehashed"));
+        write.start();
+        while (write.getState() != Thread.State.WAITING && write.isAlive()) {
+            Thread.onSpinWait();
+        }
+        finishLoad.countDown();
+        refresh.join(5_000);
+        write.join(5_000);
+
+        assertEquals("rehashed", userDAO.findByUsername("user1").getPassword());
+    }
+
+    @Test
+    void testStalenessResetsOnRefresh() {
+        assertEquals(0, userDAO.size());
+        userDAO.findAll();
+        nanos.addAndGet(5_000_000_000L);
+
+        assertEquals(2, userDAO.size());
+        assertEquals(5_000_000_000.0, userDAO.stalenessNanos());
+
+        userDAO.refresh();
+        assertEquals(0.0, userDAO.stalenessNanos());
+    }
+
+    private static User user(Long id, String username, UserRole role) {
+        User user = new User(username, username + "-password");
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -51,12 +51,12 @@ public class ExpenseDAOImplTest {
         LocalDate endDate = LocalDate.of(2024, 1, 31);
         
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("50.00"));
-        when(resultSet.getString("category")).thenReturn("Food");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.of(2024, 1, 15)));
-        when(resultSet.getString("description")).thenReturn("Test expense");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("50.00"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.of(2024, 1, 15));
+        when(resultSet.getString(5)).thenReturn("Test expense");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findByDateRangeAndUserId(startDate, endDate, userId);
 
@@ -83,12 +83,12 @@ public class ExpenseDAOImplTest {
     void testFindByCategoryExisting() throws SQLException {
         Long userId = 1L;
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("25.00"));
-        when(resultSet.getString("category")).thenReturn("Food");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("Lunch");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("25.00"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("Lunch");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findByCategoryAndUserId("Food", userId);
 
@@ -106,26 +106,146 @@ public class ExpenseDAOImplTest {
         List<Expense> result = expenseDAO.findByCategoryAndUserId("Travel", userId);
 
         assertEquals(0, result.size());
-        verify(preparedStatement).setString(1, "Travel");
-        verify(preparedStatement).setLong(2, userId);
+        // An unknown name cannot match a stored category, so no query is issued
+        verify(dataSource, never()).getConnection();
     }
 
     @Test
     void testFindByCategoryCaseInsensitive() throws SQLException {
         Long userId = 1L;
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("15.00"));
-        when(resultSet.getString("category")).thenReturn("Food");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("Coffee");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("15.00"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("Coffee");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
-        List<Expense> result = expenseDAO.findByCategoryAndUserId("food", userId);
+        List<Expense> result = expenseDAO.findByCategoryAndUserId(" food ", userId);
 
         assertEquals(1, result.size());
-        verify(preparedStatement).setString(1, "food");
+        verify(preparedStatement).setString(1, "Food");
         verify(preparedStatement).setLong(2, userId);
-        verify(connection).prepareStatement("SELECT * FROM expenses WHERE LOWER(category) = LOWER(?) AND user_id = ?");
+        verify(connection).prepareStatement("SELECT id, amount, category, date, description, user_id FROM expenses WHERE category = ? AND user_id = ?");
+    }
+
+    @Test
+    void testFindByQueryBuildsSingleWhereClause() throws SQLException {
+        Long userId = 1L;
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 31);
+        when(resultSet.next()).thenReturn(false);
+
+        ExpenseQuery query = ExpenseQuery.forUser(userId)
+            .withDateRange(startDate, endDate)
+            .withCategories(List.of(ExpenseCategory.FOOD))
+            .withAmountRange(new BigDecimal("5.00"), null)
+            .withDescriptionContaining("50%");
+
+        expenseDAO.findByQuery(query);
+
+        verify(connection).prepareStatement("SELECT id, amount, category, date, description, user_id FROM expenses WHERE user_id = ? AND date >= ? AND date <= ?"
+            + " AND category IN (?) AND amount >= ? AND description LIKE ? ESCAPE '!'");
+        verify(preparedStatement).setLong(1, userId);
+        verify(preparedStatement).setDate(2, Date.valueOf(startDate));
+        verify(preparedStatement).setDate(3, Date.valueOf(endDate));
+        verify(preparedStatement).setString(4, "Food");
+        verify(preparedStatement).setBigDecimal(5, new BigDecimal("5.00"));
+        verify(preparedStatement).setString(6, "%50!%%");
+    }
+
+    @Test
+    void testFindByQueryWithUnknownCategorySkipsDatabase() throws SQLException {
+        ExpenseQuery query = ExpenseQuery.forUser(1L).withCategories(List.of());
+
+        List<Expense> result = expenseDAO.findByQuery(query);
+
+        assertTrue(result.isEmpty());
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void testFindPageByQueryUsesWhitelistedOrderBy() throws SQLException {
+        Long userId = 1L;
+        when(resultSet.next()).thenReturn(false);
+
+        expenseDAO.findPageByQuery(ExpenseQuery.forUser(userId), ExpenseSortOrder.fromString("amount; DROP TABLE expenses"), 2, 10);
+
+        verify(connection).prepareStatement("SELECT id, amount, category, date, description, user_id FROM expenses WHERE user_id = ? ORDER BY id, user_id LIMIT ? OFFSET ?");
+        verify(preparedStatement).setLong(1, userId);
+        verify(preparedStatement).setInt(2, 10);
+        verify(preparedStatement).setInt(3, 20);
+    }
+
+    @Test
+    void testCountBeforeComparesTheSortKeyColumnByColumn() throws SQLException {
+        Long userId = 1L;
+        Expense expense = new Expense("Lunch", new BigDecimal("12.50"), ExpenseCategory.FOOD, LocalDate.of(2024, 3, 1), userId);
+        expense.setId(40L);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(23L);
+
+        long rank = expenseDAO.countBefore(ExpenseQuery.forUser(userId), ExpenseSortOrder.AMOUNT, expense);
+
+        assertEquals(23L, rank);
+        verify(connection).prepareStatement("SELECT COUNT(*) FROM expenses WHERE user_id = ? AND "
+            + "(amount < ? OR (amount = ? AND (id < ? OR (id = ? AND user_id < ?))))");
+        verify(preparedStatement).setLong(1, userId);
+        verify(preparedStatement).setBigDecimal(2, new BigDecimal("12.50"));
+        verify(preparedStatement).setBigDecimal(3, new BigDecimal("12.50"));
+        verify(preparedStatement).setLong(4, 40L);
+        verify(preparedStatement).setLong(5, 40L);
+        verify(preparedStatement).setLong(6, userId);
+    }
+
+    @Test
+    void testTotalsByQuery() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(2L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("17.50"));
+
+        ExpenseTotals totals = expenseDAO.totalsByQuery(ExpenseQuery.forUser(1L));
+
+        assertEquals(new ExpenseTotals(2, new BigDecimal("17.50")), totals);
+        verify(connection).prepareStatement("SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM expenses WHERE user_id = ?");
+    }
+
+    @Test
+    void testSumByCategoryReadsSummaryTable() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("Food");
+        when(resultSet.getLong(2)).thenReturn(3L);
+        when(resultSet.getBigDecimal(3)).thenReturn(new BigDecimal("42.00"));
+
+        List<CategoryTotal> totals = expenseDAO.sumByCategory(1L);
+
+        assertEquals(List.of(new CategoryTotal(ExpenseCategory.FOOD, 3, new BigDecimal("42.00"))), totals);
+        verify(connection).prepareStatement("SELECT category, SUM(expense_count), SUM(total_amount) FROM expense_summaries WHERE user_id = ? GROUP BY category");
+    }
+
+    @Test
+    void testTotalsByUserIdReadsSummaryTable() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(4L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("99.90"));
+
+        ExpenseTotals totals = expenseDAO.totalsByUserId(2L);
+
+        assertEquals(new ExpenseTotals(4, new BigDecimal("99.90")), totals);
+        verify(preparedStatement).setLong(1, 2L);
+        verify(connection).prepareStatement("SELECT COALESCE(SUM(expense_count), 0), COALESCE(SUM(total_amount), 0) FROM expense_summaries WHERE user_id = ?");
+    }
+
+    @Test
+    void testRebuildSummariesReplacesAllRowsInOneTransaction() throws SQLException {
+        when(preparedStatement.executeUpdate()).thenReturn(12, 5);
+
+        int buckets = expenseDAO.rebuildSummaries();
+
+        assertEquals(5, buckets);
+        verify(connection).prepareStatement("DELETE FROM expense_summaries");
+        verify(connection).prepareStatement(startsWith("INSERT INTO expense_summaries"));
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
     }
-}
\ No newline at end of file
+}
@@ -57,19 +57,19 @@ public class ExpenseDAOMultiUserTest {
         
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("50.00"));
-        when(resultSet.getString("category")).thenReturn("Food");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("User 1 expense");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("50.00"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("User 1 expense");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findAllByUserId(userId);
 
         assertEquals(1, result.size());
         assertEquals(userId, result.get(0).getUserId());
         verify(preparedStatement).setLong(1, userId);
-        verify(connection).prepareStatement("SELECT * FROM expenses WHERE user_id = ?");
+        verify(connection).prepareStatement("SELECT id, amount, category, date, description, user_id FROM expenses WHERE user_id = ?");
     }
 
     @Test
@@ -79,12 +79,12 @@ public class ExpenseDAOMultiUserTest {
         
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true);
-        when(resultSet.getLong("id")).thenReturn(expenseId);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("25.00"));
-        when(resultSet.getString("category")).thenReturn("Transport");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("Bus ticket");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(expenseId);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("25.00"));
+        when(resultSet.getString(3)).thenReturn("Transport");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("Bus ticket");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         Expense result = expenseDAO.findByIdAndUserId(expenseId, userId);
 
@@ -129,17 +129,122 @@ public class ExpenseDAOMultiUserTest {
         verify(connection).prepareStatement("INSERT INTO expenses (id, amount, category, date, description, user_id) VALUES (?, ?, ?, ?, ?, ?)");
     }
 
+    @Test
+    void testSaveExpense_AddsToSummaryInSameTransaction() throws SQLException {
+        long userId = 2L;
+        Expense expense = new Expense("Taxi", new BigDecimal("18.40"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 5, 3), userId);
+        expense.setId(7L);
+
+        expenseDAO.save(expense);
+
+        verify(connection).prepareStatement(startsWith("INSERT INTO expense_summaries"));
+        verify(preparedStatement).setLong(1, userId);
+        verify(preparedStatement).setString(2, expense.getCategoryDisplayName());
+        verify(preparedStatement).setInt(3, 2024);
+        verify(preparedStatement).setInt(4, 5);
+        verify(preparedStatement).setInt(5, 1);
+        verify(preparedStatement).setBigDecimal(8, expense.getAmount());
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    void testSaveExpense_RollsBackWhenSummaryUpdateFails() throws SQLException {
+        Expense expense = new Expense("Taxi", new BigDecimal("18.40"), ExpenseCategory.TRANSPORT, LocalDate.now(), 2L);
+        expense.setId(7L);
+        when(preparedStatement.executeUpdate()).thenReturn(1).thenThrow(new SQLException("deadlock"));
+
+        assertThrows(RuntimeException.class, () -> expenseDAO.save(expense));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    void testSaveAll_BatchesRowsAndReservesIdsPerUser() throws SQLException {
+        expenseDAO.batchSize = 2;
+        LocalDate date = LocalDate.of(2024, 6, 1);
+        List<Expense> expenses = List.of(
+            new Expense("Lunch", new BigDecimal("10.00"), ExpenseCategory.FOOD, date, 1L),
+            new Expense("Dinner", new BigDecimal("20.00"), ExpenseCategory.FOOD, date, 1L),
+            new Expense("Bus", new BigDecimal("3.00"), ExpenseCategory.TRANSPORT, date, 2L)
+        );
+        when(expenseIdService.reserveIds(1L, 2)).thenReturn(100L);
+        when(expenseIdService.reserveIds(2L, 1)).thenReturn(7L);
+
+        expenseDAO.saveAll(expenses);
+
+        assertEquals(List.of(100L, 101L, 7L), expenses.stream().map(Expense::getId).toList());
+        verify(expenseIdService, never()).getNextAvailableIdForUser(anyLong());
+        // Three expense rows plus two summary buckets, flushed as two row batches and one summary batch
+        verify(preparedStatement, times(5)).addBatch();
+        verify(preparedStatement, times(3)).executeBatch();
+        verify(preparedStatement, never()).executeUpdate();
+        verify(preparedStatement).setBigDecimal(6, new BigDecimal("30.00"));
+        verify(connection).commit();
+    }
+
+    @Test
+    void testUpdateExpense_MovesAmountBetweenSummaryBuckets() throws SQLException {
+        long userId = 1L;
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(3L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("10.00"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.of(2024, 1, 31));
+        when(resultSet.getString(5)).thenReturn("Lunch");
+        when(resultSet.getLong(6)).thenReturn(userId);
+        Expense updated = new Expense("Lunch", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 2, 1), userId);
+        updated.setId(3L);
+
+        expenseDAO.update(updated);
+
+        verify(connection).prepareStatement("UPDATE expenses SET amount = ?, category = ?, date = ?, description = ? WHERE id = ? AND user_id = ?");
+        // January loses the old row, February gains the new one
+        verify(preparedStatement, times(2)).setInt(4, 1);
+        verify(preparedStatement).setBigDecimal(6, new BigDecimal("-10.00"));
+        verify(preparedStatement).setInt(4, 2);
+        verify(preparedStatement).setBigDecimal(6, new BigDecimal("25.00"));
+        verify(connection).commit();
+    }
+
     @Test
     void testDeleteByIdAndUserId_OnlyDeletesUserExpense() throws SQLException {
         long expenseId = 1L;
         long userId = 1L;
+        
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(expenseId);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("12.50"));
+        when(resultSet.getString(3)).thenReturn("Food");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.of(2024, 3, 10));
+        when(resultSet.getString(5)).thenReturn("Lunch");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         expenseDAO.deleteByIdAndUserId(expenseId, userId);
 
-        verify(preparedStatement).setLong(1, expenseId);
-        verify(preparedStatement).setLong(2, userId);
+        verify(connection).prepareStatement("SELECT id, amount, category, date, description, user_id FROM expenses WHERE id = ? AND user_id = ? FOR UPDATE");
         verify(connection).prepareStatement("DELETE FROM expenses WHERE id = ? AND user_id = ?");
-        verify(preparedStatement).executeUpdate();
+        // The deleted row is taken out of its summary bucket in the same transaction
+        verify(preparedStatement).setBigDecimal(6, new BigDecimal("-12.50"));
+        verify(preparedStatement, times(2)).setInt(3, 2024);
+        verify(preparedStatement).setInt(5, -1);
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+    }
+
+    @Test
+    void testDeleteByIdAndUserId_MissingExpenseLeavesSummaryAlone() throws SQLException {
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        expenseDAO.deleteByIdAndUserId(1L, 2L);
+
+        verify(connection, never()).prepareStatement("DELETE FROM expenses WHERE id = ? AND user_id = ?");
+        verify(preparedStatement, never()).executeUpdate();
+        verify(connection).commit();
     }
 
     @Test
@@ -149,12 +254,12 @@ public class ExpenseDAOMultiUserTest {
         
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("15.00"));
-        when(resultSet.getString("category")).thenReturn(category);
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("Lunch");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("15.00"));
+        when(resultSet.getString(3)).thenReturn(category);
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("Lunch");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findByCategoryAndUserId(category, userId);
 
@@ -173,12 +278,12 @@ public class ExpenseDAOMultiUserTest {
         
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("40.00"));
-        when(resultSet.getString("category")).thenReturn("Shopping");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.of(2024, 1, 15)));
-        when(resultSet.getString("description")).thenReturn("Groceries");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("40.00"));
+        when(resultSet.getString(3)).thenReturn("Shopping");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.of(2024, 1, 15));
+        when(resultSet.getString(5)).thenReturn("Groceries");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findByDateRangeAndUserId(startDate, endDate, userId);
 
@@ -195,9 +300,11 @@ public class ExpenseDAOMultiUserTest {
 
         expenseDAO.deleteAllByUserId(userId);
 
-        verify(preparedStatement).setLong(1, userId);
+        verify(preparedStatement, times(2)).setLong(1, userId);
         verify(connection).prepareStatement("DELETE FROM expenses WHERE user_id = ?");
-        verify(preparedStatement).executeUpdate();
+        verify(connection).prepareStatement("DELETE FROM expense_summaries WHERE user_id = ?");
+        verify(preparedStatement, times(2)).executeUpdate();
+        verify(connection).commit();
     }
 
     @Test
@@ -208,12 +315,12 @@ public class ExpenseDAOMultiUserTest {
         
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true, false);
-        when(resultSet.getLong("id")).thenReturn(1L);
-        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("20.00"));
-        when(resultSet.getString("category")).thenReturn("Entertainment");
-        when(resultSet.getDate("date")).thenReturn(Date.valueOf(LocalDate.now()));
-        when(resultSet.getString("description")).thenReturn("Movie");
-        when(resultSet.getLong("user_id")).thenReturn(userId);
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("20.00"));
+        when(resultSet.getString(3)).thenReturn("Entertainment");
+        when(resultSet.getObject(4, LocalDate.class)).thenReturn(LocalDate.now());
+        when(resultSet.getString(5)).thenReturn("Movie");
+        when(resultSet.getLong(6)).thenReturn(userId);
 
         List<Expense> result = expenseDAO.findPageByUserId(page, size, userId);
 
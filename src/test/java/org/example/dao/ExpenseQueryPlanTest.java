@@ -0,0 +1,219 @@
+package org.example.dao;
+
+import com.mysql.cj.jdbc.MysqlDataSource;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.example.service.ExpenseIdService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on every statement the user-scoped DAO methods issue against a migrated MySQL 8 schema
+ * and fails if any of them scans the expenses or expense_summaries table without an index.
+ * Cross-user admin queries (findAll, findPage, countAll, findByCategory, findByDateRange, deleteAll,
+ * rebuildSummaries and the all-users summaries) read every row by design and are not checked.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ExpenseQueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int EXPENSES_PER_USER = 200;
+    private static final Set<String> CHECKED_TABLES = Set.of("expenses", "expense_summaries");
+    private static final Set<String> SCAN_TYPES = Set.of("ALL", "index");
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static MysqlDataSource database;
+
+    private final List<Plan> plans = new CopyOnWriteArrayList<>();
+    private ExpenseDAOImpl expenseDAO;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        database = new MysqlDataSource();
+        database.setURL(MYSQL.getJdbcUrl());
+        database.setUser(MYSQL.getUsername());
+        database.setPassword(MYSQL.getPassword());
+        Flyway.configure().dataSource(database).load().migrate();
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO users (id, username, password, role) VALUES (?, ?, 'x', 'USER')")) {
+            // The migrations create users 1-3
+            for (long userId = 4; userId <= USERS; userId++) {
+                stmt.setLong(1, userId);
+                stmt.setString(2, "plan" + userId);
+                stmt.executeUpdate();
+            }
+        }
+
+        ExpenseIdSequenceDAOImpl sequenceDAO = new ExpenseIdSequenceDAOImpl();
+        ReflectionTestUtils.setField(sequenceDAO, "dataSource", database);
+        ExpenseDAOImpl seeder = new ExpenseDAOImpl();
+        ReflectionTestUtils.setField(seeder, "dataSource", database);
+        ReflectionTestUtils.setField(seeder, "expenseIdService", new ExpenseIdService(sequenceDAO, 100));
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        for (long userId = 1; userId <= USERS; userId++) {
+            List<Expense> expenses = new ArrayList<>(EXPENSES_PER_USER);
+            for (int i = 0; i < EXPENSES_PER_USER; i++) {
+                expenses.add(new Expense("Expense " + i, new BigDecimal(5 + i % 95), categories[i % categories.length],
+                    LocalDate.of(2023, 1, 1).plusDays(i * 3L), userId));
+            }
+            seeder.saveAll(expenses);
+        }
+
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE TABLE expenses, expense_summaries");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        expenseDAO = new ExpenseDAOImpl();
+        ReflectionTestUtils.setField(expenseDAO, "dataSource", explaining(database));
+    }
+
+    @Test
+    void testSingleExpenseLookupsUseThePrimaryKey() {
+        assertIndexed(() -> expenseDAO.findByIdAndUserId(10L, 7L));
+        assertIndexed(() -> expenseDAO.deleteByIdAndUserId(Long.MAX_VALUE, 7L));
+    }
+
+    @Test
+    void testUserListingsUseTheUserIndexes() {
+        assertIndexed(() -> expenseDAO.findAllByUserId(7L));
+        assertIndexed(() -> expenseDAO.countAllByUserId(7L));
+        assertIndexed(() -> expenseDAO.findPageByUserId(2, 20, 7L));
+        assertIndexed(() -> expenseDAO.findPageByUserIdAfter(7L, new ExpenseCursor(LocalDate.of(2023, 6, 1), 50L), 20));
+        assertIndexed(() -> expenseDAO.findPageByUserIdBefore(7L, new ExpenseCursor(LocalDate.of(2023, 6, 1), 50L), 20));
+    }
+
+    @Test
+    void testCategoryAndDateFiltersUseTheUserIndexes() {
+        assertIndexed(() -> expenseDAO.findByCategoryAndUserId("Food", 7L));
+        assertIndexed(() -> expenseDAO.findByDateRangeAndUserId(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 5, 31), 7L));
+
+        ExpenseQuery query = ExpenseQuery.forUser(7L)
+            .withCategories(EnumSet.of(ExpenseCategory.FOOD, ExpenseCategory.RENT))
+            .withDateRange(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 12, 31));
+        assertIndexed(() -> expenseDAO.findByQuery(query));
+        assertIndexed(() -> expenseDAO.countByQuery(query));
+        assertIndexed(() -> expenseDAO.totalsByQuery(query));
+        assertIndexed(() -> expenseDAO.findPageByQuery(query, ExpenseSortOrder.DATE, 0, 20));
+        assertIndexed(() -> expenseDAO.streamByQuery(query, expense -> { }));
+    }
+
+    @Test
+    void testDashboardSummariesReadOneUsersRows() {
+        assertIndexed(() -> expenseDAO.totalsByUserId(7L));
+        assertIndexed(() -> expenseDAO.sumByCategory(7L));
+        assertIndexed(() -> expenseDAO.sumByMonth(7L));
+    }
+
+    private void assertIndexed(Runnable call) {
+        plans.clear();
+        call.run();
+        assertFalse(plans.isEmpty(), "no statement was explained");
+        for (Plan plan : plans) {
+            if (!CHECKED_TABLES.contains(plan.table()) || plan.type() == null) {
+                continue;
+            }
+            assertFalse(SCAN_TYPES.contains(plan.type()), () -> "full scan (" + plan + ")");
+            assertNotNull(plan.key(), () -> "no index used (" + plan + ")");
+        }
+    }
+
+    // Wraps the data source so every prepared SELECT, UPDATE or DELETE is explained, with the same
+    // parameters, right before it runs
+    private DataSource explaining(DataSource target) {
+        return proxy(DataSource.class, (method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection conn && method.getName().equals("getConnection")
+                ? explaining(conn) : result;
+        });
+    }
+
+    private Connection explaining(Connection target) {
+        return proxy(Connection.class, (method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof PreparedStatement stmt && method.getName().equals("prepareStatement")
+                ? explaining(target, stmt, (String) args[0]) : result;
+        });
+    }
+
+    private PreparedStatement explaining(Connection conn, PreparedStatement target, String sql) {
+        List<Object[]> parameterCalls = new ArrayList<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameterCalls.add(new Object[]{method, args});
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                explain(conn, sql, parameterCalls);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private void explain(Connection conn, String sql, List<Object[]> parameterCalls) throws Throwable {
+        String statement = sql.trim();
+        if (statement.regionMatches(true, 0, "INSERT", 0, 6)) {
+            return;
+        }
+        String explain = "EXPLAIN " + statement.replaceAll("(?i)\\s+FOR UPDATE$", "");
+        try (PreparedStatement stmt = conn.prepareStatement(explain)) {
+            for (Object[] call : parameterCalls) {
+                invoke(stmt, (Method) call[0], (Object[]) call[1]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plans.add(new Plan(statement, rs.getString("table"), rs.getString("type"), rs.getString("key")));
+                }
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> handler.handle(method, args)));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private record Plan(String sql, String table, String type, String key) {}
+}
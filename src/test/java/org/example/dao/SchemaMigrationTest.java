@@ -0,0 +1,107 @@
+package org.example.dao;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import com.mysql.cj.jdbc.MysqlDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Upgrades a database created by the pre-Flyway schema.sql, holding data, with the same Flyway settings as
+ * application.properties (baseline-on-migrate at V0). Runs on H2 in MySQL mode, and on MySQL 8 when Docker
+ * is available.
+ */
+public class SchemaMigrationTest {
+
+    @Test
+    void testUpgradesLegacyDatabaseOnH2() throws SQLException {
+        assertUpgrades(h2(), false);
+    }
+
+    @Test
+    void testUpgradesLegacyDatabaseThatAlreadyHasTheListingIndexOnH2() throws SQLException {
+        assertUpgrades(h2(), true);
+    }
+
+    @Test
+    void testUpgradesLegacyDatabaseOnMySql() throws SQLException {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        try (MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")) {
+            mysql.start();
+            MysqlDataSource database = new MysqlDataSource();
+            database.setURL(mysql.getJdbcUrl());
+            database.setUser(mysql.getUsername());
+            database.setPassword(mysql.getPassword());
+            assertUpgrades(database, true);
+        }
+    }
+
+    private static void assertUpgrades(DataSource database, boolean listingIndexExists) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            ScriptUtils.executeSqlScript(conn, new ClassPathResource("db/legacy-schema.sql"));
+            stmt.execute("INSERT INTO expenses (id, amount, category, date, description, user_id) "
+                + "VALUES (1, 12.50, 'FOOD', '2024-01-15', 'Lunch', 2), (2, 30.00, 'Transport', '2024-01-20', 'Train', 2)");
+            if (listingIndexExists) {
+                // Added to schema.sql before the move to Flyway, so some databases have it already
+                stmt.execute("CREATE INDEX idx_expenses_user_date_id ON expenses (user_id, date, id)");
+            }
+        }
+
+        MigrateResult result = Flyway.configure().dataSource(database)
+            .baselineOnMigrate(true).baselineVersion("0")
+            .load().migrate();
+
+        assertTrue(result.success);
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            assertEquals(1, count(stmt, "SELECT COUNT(*) FROM expenses WHERE category = 'Food'"));
+            assertEquals(2, count(stmt, "SELECT COUNT(*) FROM expense_summaries WHERE user_id = 2"));
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM expense_id_sequences"));
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM user_sessions"));
+            assertEquals(3, count(stmt, "SELECT COUNT(*) FROM users"));
+            assertTrue(hasIndex(conn, "idx_expenses_user_date_id"));
+            assertTrue(hasIndex(conn, "idx_expenses_user_category_date"));
+        }
+    }
+
+    private static long count(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static boolean hasIndex(Connection conn, String name) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "EXPENSES" : "expenses";
+        try (ResultSet indexes = metaData.getIndexInfo(conn.getCatalog(), conn.getSchema(), table, false, false)) {
+            while (indexes.next()) {
+                if (name.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return database;
+    }
+}
@@ -79,4 +79,20 @@ public class UserDAOImplTest {
         assertEquals(5L, result.getId());
         verify(jdbcTemplate).update(any(PreparedStatementCreator.class), any(KeyHolder.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpdatePassword() {
+        userDAO.updatePassword(3L, "$2a$10$hash");
+
+        verify(jdbcTemplate).update("UPDATE users SET password = ? WHERE id = ?", "$2a$10$hash", 3L);
+    }
+
+    @Test
+    void testFindById() {
+        User expectedUser = new User("testuser", "password123");
+        expectedUser.setId(4L);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), eq(4L))).thenReturn(expectedUser);
+
+        assertEquals("testuser", userDAO.findById(4L).getUsername());
+    }
+}
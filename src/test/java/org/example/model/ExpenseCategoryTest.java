@@ -0,0 +1,32 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpenseCategoryTest {
+
+    @Test
+    void testLookupIgnoresCaseAndSurroundingWhitespace() {
+        assertEquals(Optional.of(ExpenseCategory.FOOD), ExpenseCategory.lookup("Food"));
+        assertEquals(Optional.of(ExpenseCategory.FOOD), ExpenseCategory.lookup("food"));
+        assertEquals(Optional.of(ExpenseCategory.FOOD), ExpenseCategory.lookup(" FOOD "));
+        assertEquals(Optional.of(ExpenseCategory.ENTERTAINMENT), ExpenseCategory.lookup("entertainment"));
+    }
+
+    @Test
+    void testLookupOfUnknownNameIsEmpty() {
+        assertTrue(ExpenseCategory.lookup("Travel").isEmpty());
+        assertTrue(ExpenseCategory.lookup("").isEmpty());
+        assertTrue(ExpenseCategory.lookup(null).isEmpty());
+    }
+
+    @Test
+    void testFromStringRejectsUnknownNames() {
+        assertEquals(ExpenseCategory.RENT, ExpenseCategory.fromString("rent"));
+        assertNull(ExpenseCategory.fromString(null));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseCategory.fromString("Travel"));
+    }
+}
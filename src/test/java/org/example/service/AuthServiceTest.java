@@ -5,10 +5,17 @@ import org.example.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -18,12 +25,15 @@ class AuthServiceTest {
     @Mock
     private UserDAO userDAO;
 
+    // The lowest bcrypt strength keeps the tests fast
+    private final PasswordHasher passwordHasher = new PasswordHasher(4);
+
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        authService = new AuthService(userDAO);
+        authService = new AuthService(userDAO, passwordHasher, Runnable::run, Runnable::run, 5000);
     }
 
     @Test
@@ -94,4 +104,129 @@ class AuthServiceTest {
         assertThrows(IllegalArgumentException.class, 
             () -> authService.createUser("admin", "newpassword"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void authenticate_PlaintextPassword_RehashesOnSuccess() {
+        User user = new User("admin", "admin");
+        user.setId(1L);
+        when(userDAO.findByUsername("admin")).thenReturn(user);
+
+        User result = authService.authenticate("admin", "admin");
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(userDAO).updatePassword(eq(1L), hash.capture());
+        assertTrue(hash.getValue().startsWith("$2a$04$"));
+        assertTrue(passwordHasher.matches("admin", hash.getValue()));
+        assertEquals(hash.getValue(), result.getPassword());
+    }
+
+    @Test
+    void authenticate_HashedPassword_DoesNotRehash() {
+        User user = new User("admin", passwordHasher.hash("admin"));
+        user.setId(1L);
+        when(userDAO.findByUsername("admin")).thenReturn(user);
+
+        assertNotNull(authService.authenticate("admin", "admin"));
+        assertNull(authService.authenticate("admin", "wrong"));
+        verify(userDAO, never()).updatePassword(anyLong(), anyString());
+    }
+
+    @Test
+    void authenticate_WeakerHash_UpgradedToConfiguredStrength() {
+        User user = new User("admin", passwordHasher.hash("admin"));
+        user.setId(1L);
+        when(userDAO.findByUsername("admin")).thenReturn(user);
+        AuthService stronger = new AuthService(userDAO, new PasswordHasher(5), Runnable::run, Runnable::run, 5000);
+
+        assertNotNull(stronger.authenticate("admin", "admin"));
+
+        verify(userDAO).updatePassword(eq(1L), startsWith("$2a$05$"));
+    }
+
+    @Test
+    void authenticate_WrongPassword_DoesNotRehash() {
+        User user = new User("admin", "admin");
+        user.setId(1L);
+        when(userDAO.findByUsername("admin")).thenReturn(user);
+
+        assertNull(authService.authenticate("admin", "Admin"));
+        verify(userDAO, never()).updatePassword(anyLong(), anyString());
+    }
+
+    @Test
+    void authenticate_PoolSaturated_ThrowsLoginThrottled() {
+        Executor saturated = runnable -> {
+            throw new RejectedExecutionException("full");
+        };
+        authService = new AuthService(userDAO, passwordHasher, saturated, Runnable::run, 5000);
+        when(userDAO.findByUsername("admin")).thenReturn(new User("admin", "admin"));
+
+        assertThrows(LoginThrottledException.class, () -> authService.authenticate("admin", "admin"));
+        assertTrue(authService.authenticateAsync("admin", "admin").isCompletedExceptionally());
+    }
+
+    @Test
+    void authenticate_QueuedPastTimeout_ThrowsLoginThrottled() {
+        Executor neverRuns = runnable -> { };
+        authService = new AuthService(userDAO, passwordHasher, neverRuns, Runnable::run, 50);
+        when(userDAO.findByUsername("admin")).thenReturn(new User("admin", "admin"));
+
+        assertThrows(LoginThrottledException.class, () -> authService.authenticate("admin", "admin"));
+    }
+
+    @Test
+    void authenticate_TimedOutCheck_SkipsHashingWhenDequeued() {
+        List<Runnable> queued = new ArrayList<>();
+        PasswordHasher hasher = spy(passwordHasher);
+        authService = new AuthService(userDAO, hasher, queued::add, Runnable::run, 50);
+        when(userDAO.findByUsername("admin")).thenReturn(new User("admin", "admin"));
+
+        assertThrows(LoginThrottledException.class, () -> authService.authenticate("admin", "admin"));
+        queued.forEach(Runnable::run);
+
+        verify(hasher, never()).matches(anyString(), any());
+        verify(userDAO, never()).updatePassword(anyLong(), anyString());
+    }
+
+    @Test
+    void authenticate_Rehash_WrittenOnWriteExecutor() {
+        List<Runnable> writes = new ArrayList<>();
+        authService = new AuthService(userDAO, passwordHasher, Runnable::run, writes::add, 5000);
+        User user = new User("admin", "admin");
+        user.setId(1L);
+        when(userDAO.findByUsername("admin")).thenReturn(user);
+
+        CompletableFuture<User> login = authService.authenticateAsync("admin", "admin");
+
+        assertFalse(login.isDone());
+        verify(userDAO, never()).updatePassword(anyLong(), anyString());
+
+        writes.forEach(Runnable::run);
+
+        assertSame(user, login.join());
+        verify(userDAO).updatePassword(eq(1L), startsWith("$2a$04$"));
+    }
+
+    @Test
+    void authenticate_WriteExecutorSaturated_ThrowsLoginThrottled() {
+        Executor saturated = runnable -> {
+            throw new RejectedExecutionException("full");
+        };
+        authService = new AuthService(userDAO, passwordHasher, Runnable::run, saturated, 5000);
+        when(userDAO.findByUsername("admin")).thenReturn(new User("admin", "admin"));
+
+        assertThrows(LoginThrottledException.class, () -> authService.authenticate("admin", "admin"));
+    }
+
+    @Test
+    void createUser_StoresHashNotPlaintext() {
+        when(userDAO.findByUsername("newuser")).thenReturn(null);
+        when(userDAO.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = authService.createUser("newuser", "password");
+
+        assertNotEquals("password", result.getPassword());
+        assertTrue(passwordHasher.matches("password", result.getPassword()));
+        assertFalse(passwordHasher.needsRehash(result.getPassword()));
+    }
+}
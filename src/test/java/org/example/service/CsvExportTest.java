@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,10 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,7 +32,7 @@ public class CsvExportTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ExpenseCrudService crudService = new ExpenseCrudService(expenseDAO, idService);
+        ExpenseCrudService crudService = new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
         ExpenseFilterService filterService = new ExpenseFilterService(crudService);
         csvExportService = new CsvExportService(crudService, filterService);
     }
@@ -42,7 +45,7 @@ public class CsvExportTest {
             createExpenseForUser(2L, "Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 1, 20), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         String csv = csvExportService.exportAllToCsvForUser(userId);
 
@@ -60,7 +63,7 @@ public class CsvExportTest {
             createExpenseForUser(3L, "Dinner", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         String csv = csvExportService.exportFilteredToCsvForUser(null, null, "Food", userId);
 
@@ -80,7 +83,7 @@ public class CsvExportTest {
             createExpenseForUser(2L, "Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 2, 5), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         String csv = csvExportService.exportFilteredToCsvForUser(startDate, endDate, null, userId);
 
@@ -91,7 +94,7 @@ public class CsvExportTest {
     @Test
     void testExportEmptyList() {
         Long userId = 1L;
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(List.of());
+        stubExpenses(List.of());
 
         String csv = csvExportService.exportAllToCsvForUser(userId);
 
@@ -105,7 +108,7 @@ public class CsvExportTest {
             createExpenseForUser(1L, "Test", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 1), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         String csv = csvExportService.exportAllToCsvForUser(userId);
 
@@ -127,7 +130,7 @@ public class CsvExportTest {
             createExpenseForUser(3L, "Dinner", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 2, 5), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         String csv = csvExportService.exportFilteredToCsvForUser(startDate, endDate, "Food", userId);
 
@@ -136,6 +139,49 @@ public class CsvExportTest {
         assertFalse(csv.contains("Dinner"));
     }
 
+    @Test
+    void testEscapesCommasAndQuotes() {
+        Long userId = 1L;
+        stubExpenses(List.of(
+            createExpenseForUser(1L, "Lunch, with \"friends\"", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 15), userId)
+        ));
+
+        String csv = csvExportService.exportAllToCsvForUser(userId);
+
+        assertEquals("1,\"Lunch, with \"\"friends\"\"\",15.00,Food,2024-01-15", csv.split("\n")[1]);
+    }
+
+    @Test
+    void testWriteFilteredCsvStreamsRows() throws Exception {
+        Long userId = 1L;
+        List<Expense> expenses = Arrays.asList(
+            createExpenseForUser(1L, "Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 15), userId),
+            createExpenseForUser(2L, "Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 1, 20), userId)
+        );
+        stubExpenses(expenses);
+        StringWriter writer = new StringWriter();
+
+        csvExportService.writeFilteredCsvForUser(null, null, "Food", userId, writer);
+
+        assertEquals("ID,Description,Amount,Category,Date\n1,Lunch,15.00,Food,2024-01-15\n", writer.toString());
+        verify(expenseDAO, never()).findAllByUserId(any());
+        verify(expenseDAO, never()).findByQuery(any());
+    }
+
+    private void stubExpenses(List<Expense> expenses) {
+        when(expenseDAO.findAllByUserId(anyLong())).thenReturn(expenses);
+        when(expenseDAO.findByQuery(any(ExpenseQuery.class))).thenAnswer(invocation -> {
+            ExpenseQuery query = invocation.getArgument(0);
+            return expenses.stream().filter(query::matches).toList();
+        });
+        doAnswer(invocation -> {
+            ExpenseQuery query = invocation.getArgument(0);
+            Consumer<Expense> consumer = invocation.getArgument(1);
+            expenses.stream().filter(query::matches).forEach(consumer);
+            return null;
+        }).when(expenseDAO).streamByQuery(any(ExpenseQuery.class), any());
+    }
+
     private Expense createExpenseForUser(Long id, String description, BigDecimal amount, ExpenseCategory category, LocalDate date, Long userId) {
         Expense expense = new Expense(description, amount, category, date, userId);
         expense.setId(id);
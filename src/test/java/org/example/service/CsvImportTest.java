@@ -0,0 +1,275 @@
+package org.example.service;
+
+import org.example.dao.ExpenseDAO;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class CsvImportTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private ExpenseDAO expenseDAO;
+
+    @Mock
+    private ExpenseIdService idService;
+
+    private final ExecutorService writer = Executors.newFixedThreadPool(2);
+    private CsvImportService csvImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExpenseCrudService crudService = new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
+        csvImportService = new CsvImportService(crudService, writer, BATCH_SIZE, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void testImportsExportFormatInBatches() throws IOException {
+        String csv = """
+            ID,Description,Amount,Category,Date
+            7,Lunch,15.00,Food,2024-01-15
+            8,"Dinner, with team",40.00,Food,2024-01-16
+            9,Bus,2.50,TRANSPORT,2024-01-20
+            """;
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(new StringReader(csv), 3L);
+
+        assertEquals(3, report.importedRows());
+        assertEquals(0, report.rejectedRows());
+        assertNull(report.failure());
+        List<Expense> saved = capturedSaves();
+        assertEquals(List.of(2, 1), savedBatchSizes());
+        assertEquals("Dinner, with team", saved.get(1).getDescription());
+        assertEquals(ExpenseCategory.TRANSPORT, saved.get(2).getCategory());
+        // IDs from the file are ignored; the user's own sequence assigns new ones
+        assertTrue(saved.stream().allMatch(expense -> expense.getId() == null && expense.getUserId() == 3L));
+    }
+
+    @Test
+    void testReportsInvalidRowsWithLineNumbers() throws IOException {
+        String csv = """
+            Date,Category,Amount,Description
+            2024-01-15,Food,15.00,Lunch
+            2024-01-16,Food,-5.00,Refund
+            not-a-date,Food,3.00,Coffee
+            2024-01-17,Groceries,3.00,Milk
+            2024-01-18,Food,abc,Snack
+            2024-01-19,Food
+            2024-01-20,Other,1.00,
+            """;
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(new StringReader(csv), 1L);
+
+        assertEquals(1, report.importedRows());
+        assertEquals(6, report.rejectedRows());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L), report.errors().stream().map(CsvImportService.RowError::line).toList());
+        assertTrue(report.errors().get(0).message().contains("Amount must be greater than 0"));
+        assertTrue(report.errors().get(2).message().contains("Invalid category"));
+        assertTrue(report.errors().get(3).message().contains("Invalid amount"));
+        assertTrue(report.errors().get(5).message().contains("Description cannot be null or empty"));
+        assertFalse(report.errorsTruncated());
+    }
+
+    @Test
+    void testCapsReportedErrors() throws IOException {
+        StringBuilder csv = new StringBuilder("Description,Amount,Category,Date\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append("Bad,0,Food,2024-01-01\n");
+        }
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(new StringReader(csv.toString()), 1L);
+
+        assertEquals(25, report.rejectedRows());
+        assertEquals(10, report.errors().size());
+        assertTrue(report.errorsTruncated());
+        verify(expenseDAO, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testRejectsHeaderWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+            () -> csvImportService.importCsv(new StringReader("Description,Amount,Date\nLunch,1.00,2024-01-01\n"), 1L));
+        assertThrows(IllegalArgumentException.class,
+            () -> csvImportService.importCsv(new StringReader(""), 1L));
+    }
+
+    @Test
+    void testFailedBatchStopsImportAndKeepsCommittedCount() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new RuntimeException("Error saving expenses in batch");
+            }
+            return null;
+        }).when(expenseDAO).saveAll(anyList());
+        StringBuilder csv = new StringBuilder("Description,Amount,Category,Date\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("Row ").append(i).append(",1.00,Food,2024-01-01\n");
+        }
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(new StringReader(csv.toString()), 1L);
+
+        assertEquals("Error saving expenses in batch", report.failure());
+        assertTrue(report.importedRows() >= BATCH_SIZE && report.importedRows() < 20);
+        assertEquals(0, report.importedRows() % BATCH_SIZE);
+    }
+
+    @Test
+    void testParserWaitsForWriterWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        doAnswer(invocation -> {
+            started.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(expenseDAO).saveAll(anyList());
+        StringBuilder csv = new StringBuilder("Description,Amount,Category,Date\n");
+        for (int i = 0; i < 40; i++) {
+            csv.append("Row ").append(i).append(",1.00,Food,2024-01-01\n");
+        }
+        TrackingReader reader = new TrackingReader(csv.toString());
+
+        Thread importer = new Thread(() -> {
+            try {
+                csvImportService.importCsv(reader, 1L);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        importer.start();
+        Thread.sleep(200);
+
+        // One batch is being written and two are queued, so the parser has stopped well short of the input
+        assertEquals(1, started.get());
+        assertTrue(reader.recordsHandedOut() < 20);
+        release.countDown();
+        importer.join(5000);
+        assertFalse(importer.isAlive());
+        verify(expenseDAO, times(20)).saveAll(anyList());
+    }
+
+    @Test
+    void testEscapesHtmlInDescriptions() throws IOException {
+        String csv = """
+            Description,Amount,Category,Date
+            <script>alert('x')</script>,5.00,Food,2024-01-15
+            """;
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(new StringReader(csv), 1L);
+
+        assertEquals(1, report.importedRows());
+        assertEquals("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;", capturedSaves().get(0).getDescription());
+    }
+
+    @Test
+    void testReadErrorWritesRowsReadSoFarAndReportsTheError() throws IOException {
+        String csv = """
+            Description,Amount,Category,Date
+            Lunch,15.00,Food,2024-01-15
+            Dinner,40.00,Food,2024-01-16
+            Bus,2.50,Transport,2024-01-20
+            Cab,12.00,Transport,2024-01-21
+            """;
+        // The client goes away partway through the fourth row
+        int cut = csv.indexOf("Cab") + 5;
+        Reader disconnecting = new FilterReader(new StringReader(csv)) {
+            private int served;
+
+            @Override
+            public int read(char[] buffer, int off, int len) throws IOException {
+                if (served >= cut) {
+                    throw new IOException("Connection reset by peer");
+                }
+                int count = super.read(buffer, off, Math.min(len, cut - served));
+                served += Math.max(0, count);
+                return count;
+            }
+        };
+
+        CsvImportService.ImportReport report = csvImportService.importCsv(disconnecting, 1L);
+
+        assertEquals(3, report.importedRows());
+        assertTrue(report.failure().contains("Connection reset by peer"));
+        assertEquals(List.of(2, 1), savedBatchSizes());
+    }
+
+    private List<Expense> capturedSaves() {
+        List<Expense> saved = new ArrayList<>();
+        batchCaptor().getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    private List<Integer> savedBatchSizes() {
+        return batchCaptor().getAllValues().stream().map(List::size).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Expense>> batchCaptor() {
+        ArgumentCaptor<List<Expense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(expenseDAO, atLeastOnce()).saveAll(captor.capture());
+        return captor;
+    }
+
+    // Feeds the CSV one line per read call so progress through the input is observable
+    private static final class TrackingReader extends java.io.Reader {
+        private final String[] lines;
+        private int next;
+        private String current = "";
+        private int offset;
+
+        TrackingReader(String csv) {
+            this.lines = csv.split("(?<=\n)");
+        }
+
+        synchronized int recordsHandedOut() {
+            return Math.max(0, next - 1);
+        }
+
+        @Override
+        public synchronized int read(char[] buffer, int off, int len) {
+            if (offset == current.length()) {
+                if (next == lines.length) {
+                    return -1;
+                }
+                current = lines[next++];
+                offset = 0;
+            }
+            int count = Math.min(len, current.length() - offset);
+            current.getChars(offset, offset + count, buffer, off);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.service;
+
+import org.example.dao.ExpenseTotals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DashboardCacheServiceTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ExpenseWriteVersions writeVersions;
+    private ExecutorService queryExecutor;
+    private DashboardCacheService dashboardCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        writeVersions = new ExpenseWriteVersions();
+        queryExecutor = Executors.newFixedThreadPool(3);
+        dashboardCache = new DashboardCacheService(dashboardService, writeVersions, queryExecutor, 100,
+            Duration.ofSeconds(60), nanos::get);
+        when(dashboardService.getTotalsForUser(anyLong())).thenReturn(new ExpenseTotals(2, new BigDecimal("40.00")));
+        when(dashboardService.getSpendingByCategoryForUser(anyLong())).thenReturn(new LinkedHashMap<>(Map.of("Food", new BigDecimal("40.00"))));
+        when(dashboardService.getSpendingByMonthForUser(anyLong())).thenReturn(new LinkedHashMap<>(Map.of("2024-01", new BigDecimal("40.00"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        queryExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSnapshotQueriesRunInParallel() {
+        // Each query waits until all three have started, which only happens if they run at the same time
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(dashboardService.getTotalsForUser(2L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return new ExpenseTotals(1, new BigDecimal("5.00"));
+        });
+        when(dashboardService.getSpendingByCategoryForUser(2L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return Map.of("Food", new BigDecimal("5.00"));
+        });
+        when(dashboardService.getSpendingByMonthForUser(2L)).thenAnswer(invocation -> {
+            awaitOthers(allStarted);
+            return Map.of("2024-01", new BigDecimal("5.00"));
+        });
+
+        DashboardCacheService.UserDashboard dashboard = dashboardCache.getDashboard(2L);
+
+        assertEquals(new BigDecimal("5.00"), dashboard.totalSpending());
+        assertEquals(Map.of("Food", new BigDecimal("5.00")), dashboard.spendingByCategory());
+    }
+
+    @Test
+    void testQueryFailureIsRethrownAndNothingIsCached() {
+        when(dashboardService.getSpendingByMonthForUser(2L)).thenThrow(new RuntimeException("Error fetching monthly totals"));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> dashboardCache.getDashboard(2L));
+
+        assertEquals("Error fetching monthly totals", thrown.getMessage());
+        assertThrows(RuntimeException.class, () -> dashboardCache.getDashboard(2L));
+        verify(dashboardService, times(2)).getSpendingByMonthForUser(2L);
+    }
+
+    @Test
+    void testSnapshotIsReusedUntilTheUserWrites() {
+        DashboardCacheService.UserDashboard first = dashboardCache.getDashboard(2L);
+        DashboardCacheService.UserDashboard second = dashboardCache.getDashboard(2L);
+
+        assertSame(first, second);
+        assertEquals(new BigDecimal("40.00"), first.totalSpending());
+        assertEquals(2, first.totalExpenses());
+        verify(dashboardService, times(1)).getSpendingByCategoryForUser(2L);
+
+        writeVersions.recordWrite(3L);
+        assertSame(first, dashboardCache.getDashboard(2L));
+
+        writeVersions.recordWrite(2L);
+        DashboardCacheService.UserDashboard third = dashboardCache.getDashboard(2L);
+
+        assertNotSame(first, third);
+        assertNotEquals(first.eTag(), third.eTag());
+        verify(dashboardService, times(2)).getSpendingByCategoryForUser(2L);
+    }
+
+    @Test
+    void testSnapshotExpiresAfterTheTtl() {
+        // A write made on another node leaves this node's version unchanged
+        DashboardCacheService.UserDashboard first = dashboardCache.getDashboard(2L);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertSame(first, dashboardCache.getDashboard(2L));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(dashboardCache.currentETag(2L));
+        DashboardCacheService.UserDashboard rebuilt = dashboardCache.getDashboard(2L);
+
+        assertNotSame(first, rebuilt);
+        assertNotEquals(first.eTag(), rebuilt.eTag());
+        verify(dashboardService, times(2)).getSpendingByCategoryForUser(2L);
+    }
+
+    @Test
+    void testETagFollowsTheCachedSnapshot() {
+        assertNull(dashboardCache.currentETag(2L));
+
+        String eTag = dashboardCache.getDashboard(2L).eTag();
+
+        assertEquals(eTag, dashboardCache.currentETag(2L));
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+
+        writeVersions.recordWriteForAllUsers();
+
+        assertNull(dashboardCache.currentETag(2L));
+        assertNotEquals(eTag, dashboardCache.getDashboard(2L).eTag());
+    }
+
+    @Test
+    void testIfNoneMatchHandling() {
+        String eTag = "\"dashboard-abc-1-1\"";
+
+        assertTrue(dashboardCache.isNotModified(eTag, eTag));
+        assertTrue(dashboardCache.isNotModified(eTag, "\"other\", W/" + eTag));
+        assertFalse(dashboardCache.isNotModified(eTag, "\"other\""));
+        assertFalse(dashboardCache.isNotModified(eTag, null));
+        assertFalse(dashboardCache.isNotModified(null, eTag));
+        verifyNoInteractions(dashboardService);
+    }
+
+    @Test
+    void testHitRatioCountsNotModifiedAndCacheHits() {
+        assertEquals(0.0, dashboardCache.hitRatio());
+
+        dashboardCache.getDashboard(2L);
+        dashboardCache.getDashboard(2L);
+        dashboardCache.isNotModified(dashboardCache.currentETag(2L), dashboardCache.currentETag(2L));
+        dashboardCache.getDashboard(2L);
+
+        assertEquals(0.75, dashboardCache.hitRatio());
+    }
+
+    private static void awaitOthers(CountDownLatch allStarted) throws InterruptedException {
+        allStarted.countDown();
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS), "dashboard queries did not run concurrently");
+    }
+}
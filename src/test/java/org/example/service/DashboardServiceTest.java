@@ -1,7 +1,9 @@
 package org.example.service;
 
+import org.example.dao.CategoryTotal;
 import org.example.dao.ExpenseDAO;
-import org.example.model.Expense;
+import org.example.dao.ExpenseTotals;
+import org.example.dao.MonthlyTotal;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +12,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,45 +38,52 @@ class DashboardServiceTest {
     @Test
     void testGetSpendingByCategory() {
         Long userId = 1L;
-        List<Expense> expenses = List.of(
-            new Expense("Lunch", new BigDecimal("15.50"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            new Expense("Dinner", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            new Expense("Bus", new BigDecimal("5.00"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
-        );
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        when(expenseDAO.sumByCategory(userId)).thenReturn(List.of(
+            new CategoryTotal(ExpenseCategory.FOOD, 2, new BigDecimal("40.50")),
+            new CategoryTotal(ExpenseCategory.TRANSPORT, 1, new BigDecimal("5.00"))
+        ));
 
         Map<String, BigDecimal> result = dashboardService.getSpendingByCategoryForUser(userId);
 
         assertEquals(new BigDecimal("40.50"), result.get("Food"));
         assertEquals(new BigDecimal("5.00"), result.get("Transport"));
         assertEquals(2, result.size());
+        verify(expenseDAO, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void testGetSpendingByCategoryMergesLegacySpellings() {
+        Long userId = 1L;
+        when(expenseDAO.sumByCategory(userId)).thenReturn(List.of(
+            new CategoryTotal(ExpenseCategory.FOOD, 2, new BigDecimal("40.50")),
+            new CategoryTotal(ExpenseCategory.FOOD, 1, new BigDecimal("9.50"))
+        ));
+
+        Map<String, BigDecimal> result = dashboardService.getSpendingByCategoryForUser(userId);
+
+        assertEquals(Map.of("Food", new BigDecimal("50.00")), result);
     }
 
     @Test
     void testGetSpendingByMonth() {
         Long userId = 1L;
-        List<Expense> expenses = List.of(
-            new Expense("Expense1", new BigDecimal("100.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 15), userId),
-            new Expense("Expense2", new BigDecimal("50.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 1, 20), userId),
-            new Expense("Expense3", new BigDecimal("75.00"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 2, 10), userId)
-        );
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        when(expenseDAO.sumByMonth(userId)).thenReturn(List.of(
+            new MonthlyTotal(YearMonth.of(2024, 1), 2, new BigDecimal("150.00")),
+            new MonthlyTotal(YearMonth.of(2024, 2), 1, new BigDecimal("75.00"))
+        ));
 
         Map<String, BigDecimal> result = dashboardService.getSpendingByMonthForUser(userId);
 
         assertEquals(new BigDecimal("150.00"), result.get("2024-01"));
         assertEquals(new BigDecimal("75.00"), result.get("2024-02"));
-        assertEquals(2, result.size());
+        assertEquals(List.of("2024-01", "2024-02"), List.copyOf(result.keySet()));
     }
 
     @Test
     void testGetTotalSpending() {
         Long userId = 1L;
-        List<Expense> expenses = List.of(
-            new Expense("Expense1", new BigDecimal("100.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            new Expense("Expense2", new BigDecimal("50.00"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
-        );
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        when(expenseDAO.totalsByUserId(userId))
+            .thenReturn(new ExpenseTotals(2, new BigDecimal("150.00")));
 
         BigDecimal result = dashboardService.getTotalSpendingForUser(userId);
 
@@ -81,11 +93,7 @@ class DashboardServiceTest {
     @Test
     void testGetTotalExpenseCount() {
         Long userId = 1L;
-        List<Expense> expenses = List.of(
-            new Expense("Expense1", new BigDecimal("100.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            new Expense("Expense2", new BigDecimal("50.00"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
-        );
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        when(expenseDAO.totalsByUserId(userId)).thenReturn(new ExpenseTotals(2, new BigDecimal("150.00")));
 
         long result = dashboardService.getTotalExpenseCountForUser(userId);
 
@@ -95,7 +103,9 @@ class DashboardServiceTest {
     @Test
     void testEmptyDatabase() {
         Long userId = 1L;
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(List.of());
+        when(expenseDAO.sumByCategory(userId)).thenReturn(List.of());
+        when(expenseDAO.sumByMonth(userId)).thenReturn(List.of());
+        when(expenseDAO.totalsByUserId(userId)).thenReturn(ExpenseTotals.EMPTY);
 
         Map<String, BigDecimal> categoryResult = dashboardService.getSpendingByCategoryForUser(userId);
         Map<String, BigDecimal> monthlyResult = dashboardService.getSpendingByMonthForUser(userId);
@@ -107,4 +117,4 @@ class DashboardServiceTest {
         assertEquals(BigDecimal.ZERO, totalSpending);
         assertEquals(0, totalCount);
     }
-}
\ No newline at end of file
+}
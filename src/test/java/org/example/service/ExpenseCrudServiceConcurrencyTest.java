@@ -0,0 +1,202 @@
+package org.example.service;
+
+import org.example.dao.ExpenseDAOImpl;
+import org.example.dao.ExpenseIdSequenceDAOImpl;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseTotals;
+import org.example.model.Expense;
+import org.example.model.ExpenseCategory;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers ExpenseCrudService against an in-memory H2 database (MySQL mode) migrated with the Flyway scripts,
+ * using the real DAOs and ID service, to check that concurrent writers never collide on keys
+ * and that writes for different users proceed in parallel.
+ */
+class ExpenseCrudServiceConcurrencyTest {
+
+    private static final int USERS = 4;
+    private static final int THREADS_PER_USER = 3;
+    private static final int EXPENSES_PER_THREAD = 40;
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    private JdbcDataSource database;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        Flyway.configure().dataSource(database).load().migrate();
+        try (Connection conn = database.getConnection()) {
+            // The migrations create users 1-3; add the rest so every test user satisfies the foreign keys
+            for (long userId = 4; userId <= USERS + 8; userId++) {
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO users (id, username, password, role) VALUES (?, ?, 'x', 'USER')")) {
+                    stmt.setLong(1, userId);
+                    stmt.setString(2, "load" + userId);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentSavesAcrossUsersProduceUniqueKeys() throws Exception {
+        ExpenseCrudService crudService = createCrudService(database);
+
+        runConcurrently(USERS * THREADS_PER_USER, thread -> {
+            long userId = thread % USERS + 1;
+            for (int i = 0; i < EXPENSES_PER_THREAD; i++) {
+                crudService.saveExpense(expense(userId, thread, i));
+            }
+        });
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            List<Expense> expenses = crudService.getAllExpensesByUserId(userId);
+            Set<Long> ids = expenses.stream().map(Expense::getId).collect(Collectors.toSet());
+            assertEquals(THREADS_PER_USER * EXPENSES_PER_THREAD, expenses.size());
+            assertEquals(expenses.size(), ids.size(), "duplicate expense IDs for user " + userId);
+        }
+    }
+
+    @Test
+    void testConcurrentMixedWritesKeepSummariesConsistent() throws Exception {
+        ExpenseCrudService crudService = createCrudService(database);
+
+        runConcurrently(USERS * THREADS_PER_USER, thread -> {
+            long userId = thread % USERS + 1;
+            List<Expense> saved = new ArrayList<>();
+            for (int i = 0; i < EXPENSES_PER_THREAD; i++) {
+                saved.add(crudService.saveExpense(expense(userId, thread, i)));
+            }
+            for (int i = 0; i < saved.size(); i++) {
+                Expense expense = saved.get(i);
+                if (i % 3 == 0) {
+                    crudService.deleteExpenseByIdAndUserId(expense.getId(), userId);
+                } else if (i % 3 == 1) {
+                    expense.setAmount(expense.getAmount().add(BigDecimal.ONE));
+                    expense.setCategory(CATEGORIES[(i + 1) % CATEGORIES.length]);
+                    expense.setDate(expense.getDate().minusMonths(1));
+                    crudService.updateExpense(expense);
+                }
+            }
+        });
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            ExpenseTotals fromRows = crudService.getTotals(ExpenseQuery.forUser(userId));
+            assertEquals(0, fromRows.amount().compareTo(crudService.getTotalAmountByUserId(userId)));
+            assertEquals(THREADS_PER_USER * (EXPENSES_PER_THREAD - (EXPENSES_PER_THREAD + 2) / 3), fromRows.count());
+        }
+    }
+
+    @Test
+    void testWritesForDifferentUsersRunInParallel() throws Exception {
+        // Every writer's first expense DAO checkout waits until all writers are checking out at once, so any
+        // JVM-wide lock around the DAO writes holds the peak at one (and the wait runs into its timeout). The
+        // expenses get their IDs up front and the ID service reads the ungated database, so the per-user ID
+        // locks are never what lines the writers up at the gate.
+        int threads = 8;
+        CountDownLatch allCheckingOut = new CountDownLatch(threads);
+        AtomicBoolean gaveUp = new AtomicBoolean();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        DataSource gatedDatabase = new DelegatingDataSource(database) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    allCheckingOut.countDown();
+                    if (!gaveUp.get() && !allCheckingOut.await(5, TimeUnit.SECONDS)) {
+                        gaveUp.set(true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return super.getConnection();
+            }
+        };
+        ExpenseCrudService crudService = createCrudService(database, gatedDatabase);
+
+        runConcurrently(threads, thread -> {
+            long userId = thread + USERS + 1;
+            for (int i = 0; i < EXPENSES_PER_THREAD; i++) {
+                Expense expense = expense(userId, thread, i);
+                expense.setId(i + 1L);
+                crudService.saveExpense(expense);
+            }
+        });
+
+        assertEquals(threads, peak.get(), "writers for different users were serialized");
+        for (int thread = 0; thread < threads; thread++) {
+            assertEquals(EXPENSES_PER_THREAD, crudService.getAllExpensesByUserId(thread + USERS + 1L).size());
+        }
+    }
+
+    private ExpenseCrudService createCrudService(DataSource dataSource) {
+        return createCrudService(dataSource, dataSource);
+    }
+
+    private ExpenseCrudService createCrudService(DataSource sequenceDatabase, DataSource dataSource) {
+        ExpenseIdSequenceDAOImpl sequenceDAO = new ExpenseIdSequenceDAOImpl();
+        ReflectionTestUtils.setField(sequenceDAO, "dataSource", sequenceDatabase);
+        ExpenseIdService idService = new ExpenseIdService(sequenceDAO, 10);
+
+        ExpenseDAOImpl expenseDAO = new ExpenseDAOImpl();
+        ReflectionTestUtils.setField(expenseDAO, "dataSource", dataSource);
+        ReflectionTestUtils.setField(expenseDAO, "expenseIdService", idService);
+        return new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
+    }
+
+    private void runConcurrently(int threads, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> task.run(thread)));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Expense expense(long userId, int thread, int i) {
+        return new Expense("Load " + thread + "-" + i, new BigDecimal(i + 1).setScale(2),
+            CATEGORIES[i % CATEGORIES.length], LocalDate.of(2024, 1 + i % 12, 1 + thread % 28), userId);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
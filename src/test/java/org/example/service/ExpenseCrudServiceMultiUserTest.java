@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseTotals;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +30,7 @@ public class ExpenseCrudServiceMultiUserTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        crudService = new ExpenseCrudService(expenseDAO, idService);
+        crudService = new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
     }
 
     @Test
@@ -103,17 +104,14 @@ public class ExpenseCrudServiceMultiUserTest {
     @Test
     void testGetTotalAmountByUserId_CalculatesOnlyUserExpenses() {
         Long userId = 1L;
-        List<Expense> userExpenses = Arrays.asList(
-            createExpenseForUser("Expense 1", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            createExpenseForUser("Expense 2", new BigDecimal("15.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
-        );
-        
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(userExpenses);
+        when(expenseDAO.totalsByUserId(userId))
+            .thenReturn(new ExpenseTotals(2, new BigDecimal("25.50")));
 
         BigDecimal total = crudService.getTotalAmountByUserId(userId);
 
         assertEquals(new BigDecimal("25.50"), total);
-        verify(expenseDAO).findAllByUserId(userId);
+        verify(expenseDAO).totalsByUserId(userId);
+        verify(expenseDAO, never()).findAllByUserId(userId);
     }
 
     @Test
@@ -128,6 +126,18 @@ public class ExpenseCrudServiceMultiUserTest {
         verify(expenseDAO).save(any(Expense.class));
     }
 
+    @Test
+    void testAddMultipleRandomExpensesForUser_SavesOneBatch() {
+        Long userId = 3L;
+
+        List<Expense> result = crudService.addMultipleRandomExpensesForUser(userId, 25);
+
+        assertEquals(25, result.size());
+        result.forEach(expense -> assertEquals(userId, expense.getUserId()));
+        verify(expenseDAO).saveAll(result);
+        verify(expenseDAO, never()).save(any(Expense.class));
+    }
+
     @Test
     void testUserIsolation_DifferentUsersGetDifferentData() {
         Long user1Id = 1L;
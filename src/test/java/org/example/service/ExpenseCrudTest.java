@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseTotals;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,12 +25,14 @@ public class ExpenseCrudTest {
     @Mock
     private ExpenseIdService idService;
     
+    private ExpenseWriteVersions writeVersions;
     private ExpenseCrudService crudService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        crudService = new ExpenseCrudService(expenseDAO, idService);
+        writeVersions = new ExpenseWriteVersions();
+        crudService = new ExpenseCrudService(expenseDAO, idService, writeVersions);
     }
 
     @Test
@@ -100,17 +103,14 @@ public class ExpenseCrudTest {
     @Test
     void testGetTotalAmount() {
         Long userId = 1L;
-        List<Expense> expenses = Arrays.asList(
-            createExpenseForUser("Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
-            createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
-        );
-        
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        when(expenseDAO.totalsByUserId(userId))
+            .thenReturn(new ExpenseTotals(2, new BigDecimal("17.50")));
 
         BigDecimal total = crudService.getTotalAmountByUserId(userId);
 
         assertEquals(new BigDecimal("17.50"), total);
-        verify(expenseDAO).findAllByUserId(userId);
+        verify(expenseDAO).totalsByUserId(userId);
+        verify(expenseDAO, never()).findAllByUserId(userId);
     }
 
     @Test
@@ -121,6 +121,24 @@ public class ExpenseCrudTest {
         verify(expenseDAO).save(any(Expense.class));
     }
 
+    @Test
+    void testWritesBumpTheOwnersVersionOnly() {
+        long user2 = writeVersions.currentVersion(2L);
+        long user3 = writeVersions.currentVersion(3L);
+
+        crudService.saveExpense(createExpenseForUser("Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.now(), 2L));
+        long afterSave = writeVersions.currentVersion(2L);
+        crudService.deleteExpenseByIdAndUserId(1L, 2L);
+
+        assertTrue(afterSave > user2);
+        assertTrue(writeVersions.currentVersion(2L) > afterSave);
+        assertEquals(user3, writeVersions.currentVersion(3L));
+
+        crudService.deleteAllExpenses();
+
+        assertTrue(writeVersions.currentVersion(3L) > user3);
+    }
+
     private Expense createExpenseForUser(String description, BigDecimal amount, ExpenseCategory category, LocalDate date, Long userId) {
         return new Expense(description, amount, category, date, userId);
     }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -29,7 +30,7 @@ public class ExpenseFilteringTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ExpenseCrudService crudService = new ExpenseCrudService(expenseDAO, idService);
+        ExpenseCrudService crudService = new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
         filterService = new ExpenseFilterService(crudService);
     }
 
@@ -42,7 +43,7 @@ public class ExpenseFilteringTest {
             createExpenseForUser("Dinner", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, "Food", userId);
 
@@ -57,7 +58,7 @@ public class ExpenseFilteringTest {
                 createExpenseForUser("Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, "Travel", userId);
 
@@ -72,7 +73,7 @@ public class ExpenseFilteringTest {
             createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, "", userId);
 
@@ -87,7 +88,7 @@ public class ExpenseFilteringTest {
             createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, "food", userId);
 
@@ -102,7 +103,7 @@ public class ExpenseFilteringTest {
                 createExpenseForUser("Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, "  Food  ", userId);
 
@@ -121,7 +122,7 @@ public class ExpenseFilteringTest {
         Expense expense2 = createExpenseForUser("Bus", new BigDecimal("5.00"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 1, 20), userId);
         Expense expense3 = createExpenseForUser("Dinner", new BigDecimal("30.00"), ExpenseCategory.FOOD, LocalDate.of(2024, 2, 5), userId);
 
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(Arrays.asList(expense1, expense2, expense3));
+        stubExpenses(Arrays.asList(expense1, expense2, expense3));
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(startDate, endDate, "Food", userId);
 
@@ -135,7 +136,7 @@ public class ExpenseFilteringTest {
         Expense expense1 = createExpenseForUser("Lunch", new BigDecimal("25.00"), ExpenseCategory.FOOD, LocalDate.now(), userId);
         Expense expense2 = createExpenseForUser("Bus", new BigDecimal("5.00"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId);
 
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(Arrays.asList(expense1, expense2));
+        stubExpenses(Arrays.asList(expense1, expense2));
 
         List<Expense> result = filterService.getFilteredExpensesByUserId(null, null, null, userId);
 
@@ -150,7 +151,7 @@ public class ExpenseFilteringTest {
             createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.filterExpensesByCategoryAndUserId("Food", userId);
 
@@ -169,7 +170,7 @@ public class ExpenseFilteringTest {
             createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.of(2024, 2, 5), userId)
         );
         
-        when(expenseDAO.findAllByUserId(userId)).thenReturn(expenses);
+        stubExpenses(expenses);
 
         List<Expense> result = filterService.filterExpensesByDateRangeAndUserId(startDate, endDate, userId);
 
@@ -177,6 +178,46 @@ public class ExpenseFilteringTest {
         assertEquals("Lunch", result.get(0).getDescription());
     }
 
+    @Test
+    void testFiltersArePushedDownToQuery() {
+        Long userId = 1L;
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 31);
+        stubExpenses(List.of());
+
+        filterService.getFilteredExpensesByUserId(startDate, endDate, "food", userId);
+
+        verify(expenseDAO).findByQuery(argThat(query ->
+            userId.equals(query.userId())
+                && startDate.equals(query.startDate())
+                && endDate.equals(query.endDate())
+                && query.categories().equals(java.util.Set.of(ExpenseCategory.FOOD))));
+        verify(expenseDAO, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void testSeveralCategoriesAreFilteredInOneQuery() {
+        Long userId = 1L;
+        stubExpenses(List.of(
+            createExpenseForUser("Lunch", new BigDecimal("15.00"), ExpenseCategory.FOOD, LocalDate.now(), userId),
+            createExpenseForUser("Bus", new BigDecimal("2.50"), ExpenseCategory.TRANSPORT, LocalDate.now(), userId),
+            createExpenseForUser("March rent", new BigDecimal("900.00"), ExpenseCategory.RENT, LocalDate.now(), userId)
+        ));
+
+        List<Expense> result = filterService.filterExpensesByCategoryAndUserId("food, RENT,Travel", userId);
+
+        assertEquals(2, result.size());
+        verify(expenseDAO, times(1)).findByQuery(argThat(query ->
+            query.categories().equals(java.util.Set.of(ExpenseCategory.FOOD, ExpenseCategory.RENT))));
+    }
+
+    private void stubExpenses(List<Expense> expenses) {
+        when(expenseDAO.findByQuery(any(ExpenseQuery.class))).thenAnswer(invocation -> {
+            ExpenseQuery query = invocation.getArgument(0);
+            return expenses.stream().filter(query::matches).toList();
+        });
+    }
+
     private Expense createExpenseForUser(String description, BigDecimal amount, ExpenseCategory category, LocalDate date, Long userId) {
         return new Expense(description, amount, category, date, userId);
     }
@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseIdSequenceDAO;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,16 +11,30 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class ExpenseIdServiceTest {
 
+    private static final int BLOCK_SIZE = 10;
+
     @Mock
     private ExpenseDAO expenseDAO;
+
+    @Mock
+    private ExpenseIdSequenceDAO sequenceDAO;
     
     private ExpenseIdService idService;
 
@@ -28,13 +43,13 @@ public class ExpenseIdServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        idService = new ExpenseIdService(expenseDAO);
-        crudService = new ExpenseCrudService(expenseDAO, idService);
+        idService = new ExpenseIdService(sequenceDAO, BLOCK_SIZE);
+        crudService = new ExpenseCrudService(expenseDAO, idService, new ExpenseWriteVersions());
     }
 
     @Test
     void testGetNextAvailableIdEmptyDatabase() {
-        when(expenseDAO.findAll()).thenReturn(List.of());
+        when(sequenceDAO.reserveBlock(1L, BLOCK_SIZE)).thenReturn(1L);
 
         Long nextId = idService.getNextAvailableId();
 
@@ -43,94 +58,83 @@ public class ExpenseIdServiceTest {
 
     @Test
     void testGetNextAvailableIdSequential() {
-        List<Expense> expenses = Arrays.asList(
-            createExpenseWithId(1L, 1L),
-            createExpenseWithId(2L, 1L),
-            createExpenseWithId(3L, 1L)
-        );
-
-        when(expenseDAO.findAll()).thenReturn(expenses);
-
-        Long nextId = idService.getNextAvailableId();
+        when(sequenceDAO.reserveBlock(1L, BLOCK_SIZE)).thenReturn(4L);
 
-        assertEquals(4L, nextId);
+        assertEquals(4L, idService.getNextAvailableIdForUser(1L));
+        assertEquals(5L, idService.getNextAvailableIdForUser(1L));
+        assertEquals(6L, idService.getNextAvailableIdForUser(1L));
     }
 
     @Test
-    void testGetNextAvailableIdWithGap() {
-        List<Expense> expenses = Arrays.asList(
-            createExpenseWithId(1L, 1L),
-            createExpenseWithId(3L, 1L),
-            createExpenseWithId(4L, 1L)
-        );
-
-        when(expenseDAO.findAll()).thenReturn(expenses);
+    void testBlockIsReservedOncePerBlockSize() {
+        when(sequenceDAO.reserveBlock(1L, BLOCK_SIZE)).thenReturn(1L, 11L);
 
-        Long nextId = idService.getNextAvailableId();
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            idService.getNextAvailableIdForUser(1L);
+        }
+        verify(sequenceDAO, times(1)).reserveBlock(1L, BLOCK_SIZE);
 
-        assertEquals(2L, nextId);
+        assertEquals(11L, idService.getNextAvailableIdForUser(1L));
+        verify(sequenceDAO, times(2)).reserveBlock(1L, BLOCK_SIZE);
+        verify(expenseDAO, never()).findAllByUserId(anyLong());
     }
 
     @Test
-    void testGetNextAvailableIdMultipleGaps() {
-        List<Expense> expenses = Arrays.asList(
-            createExpenseWithId(1L, 1L),
-            createExpenseWithId(4L, 1L),
-            createExpenseWithId(6L, 1L)
-        );
-
-        when(expenseDAO.findAll()).thenReturn(expenses);
-
-        Long nextId = idService.getNextAvailableId();
+    void testUsersHaveIndependentSequences() {
+        when(sequenceDAO.reserveBlock(1L, BLOCK_SIZE)).thenReturn(7L);
+        when(sequenceDAO.reserveBlock(2L, BLOCK_SIZE)).thenReturn(1L);
+
+        assertEquals(7L, idService.getNextAvailableIdForUser(1L));
+        assertEquals(1L, idService.getNextAvailableIdForUser(2L));
+        assertEquals(8L, idService.getNextAvailableIdForUser(1L));
+        assertEquals(2L, idService.getNextAvailableIdForUser(2L));
+    }
 
-        assertEquals(2L, nextId);
+    @Test
+    void testConcurrentAllocationProducesUniqueIds() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        when(sequenceDAO.reserveBlock(anyLong(), anyInt()))
+            .thenAnswer(invocation -> sequence.getAndAdd(invocation.<Integer>getArgument(1)));
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<? extends Future<?>> futures = IntStream.range(0, 8)
+            .mapToObj(t -> executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    ids.add(idService.getNextAvailableIdForUser(1L));
+                }
+            }))
+            .toList();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(4000, ids.size());
     }
 
     @Test
-    void testIdReuseAfterDeletion() {
-        // Setup: expenses with IDs 1, 3, 4 (ID 2 was deleted)
-        List<Expense> expenses = Arrays.asList(
-                createExpenseWithId(1L, 1L),
-                createExpenseWithId(3L, 1L),
-                createExpenseWithId(4L, 1L)
-        );
-
-        when(expenseDAO.findAll()).thenReturn(expenses);
-
-        // Create new expense - should get ID 2
-        Expense newExpense = createExpenseForUser("New", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.now(), 1L);
-        crudService.saveExpense(newExpense);
+    void testSeedSequencesDelegatesToDao() {
+        when(sequenceDAO.seedFromExpenses()).thenReturn(3);
 
-        assertEquals(2L, newExpense.getId());
-        verify(expenseDAO).save(newExpense);
+        idService.seedSequences();
+
+        verify(sequenceDAO).seedFromExpenses();
     }
 
     @Test
-    void testSequentialIdWhenNoGaps() {
-        // Setup: expenses with IDs 1, 2, 3
-        List<Expense> expenses = Arrays.asList(
-                createExpenseWithId(1L, 1L),
-                createExpenseWithId(2L, 1L),
-                createExpenseWithId(3L, 1L)
-        );
-
-        when(expenseDAO.findAll()).thenReturn(expenses);
-
-        // Create new expense - should get ID 4
-        Expense newExpense = createExpenseForUser("New", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.now(), 1L);
+    void testSaveExpenseAssignsIdFromUserSequence() {
+        when(sequenceDAO.reserveBlock(2L, BLOCK_SIZE)).thenReturn(42L);
+
+        Expense newExpense = createExpenseForUser("New", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.now(), 2L);
         crudService.saveExpense(newExpense);
 
-        assertEquals(4L, newExpense.getId());
+        assertEquals(42L, newExpense.getId());
         verify(expenseDAO).save(newExpense);
     }
 
-    private Expense createExpenseWithId(Long id, Long userId) {
-        Expense expense = new Expense("Test", new BigDecimal("10.00"), ExpenseCategory.FOOD, LocalDate.now(), userId);
-        expense.setId(id);
-        return expense;
-    }
-
     private Expense createExpenseForUser(String description, BigDecimal amount, ExpenseCategory category, LocalDate date, Long userId) {
         return new Expense(description, amount, category, date, userId);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package org.example.service;
 
+import org.example.dao.ExpenseCursor;
 import org.example.dao.ExpenseDAO;
+import org.example.dao.ExpenseQuery;
+import org.example.dao.ExpenseSortOrder;
 import org.example.model.Expense;
 import org.example.model.ExpenseCategory;
 import org.junit.jupiter.api.Test;
@@ -145,4 +148,119 @@ class ExpensePaginationServiceTest {
         assertEquals(1, result.totalPages());
         assertEquals(1, result.content().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetExpensesPageAfterFirstPage() {
+        Long userId = 1L;
+        List<Expense> rows = Arrays.asList(
+            createExpenseWithId(5L, LocalDate.of(2024, 3, 5), userId),
+            createExpenseWithId(4L, LocalDate.of(2024, 3, 4), userId),
+            createExpenseWithId(3L, LocalDate.of(2024, 3, 3), userId)
+        );
+        when(mockExpenseDAO.findPageByUserIdAfter(userId, null, 3)).thenReturn(rows);
+
+        ExpensePaginationService.PageResult<Expense> result = paginationService.getExpensesPageAfter("", 2, userId, false);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new ExpenseCursor(LocalDate.of(2024, 3, 4), 4L), ExpenseCursor.decode(result.nextCursor()));
+        assertNull(result.previousCursor());
+        assertTrue(result.hasNext());
+        assertFalse(result.hasPrevious());
+        assertFalse(result.hasTotal());
+        verify(mockExpenseDAO, never()).countAllByUserId(userId);
+    }
+
+    @Test
+    void testGetExpensesPageAfterLastPage() {
+        Long userId = 1L;
+        ExpenseCursor cursor = new ExpenseCursor(LocalDate.of(2024, 3, 4), 4L);
+        List<Expense> rows = List.of(createExpenseWithId(3L, LocalDate.of(2024, 3, 3), userId));
+        when(mockExpenseDAO.findPageByUserIdAfter(userId, cursor, 3)).thenReturn(rows);
+        when(mockExpenseDAO.countAllByUserId(userId)).thenReturn(3L);
+
+        ExpensePaginationService.PageResult<Expense> result = paginationService.getExpensesPageAfter(cursor.encode(), 2, userId, true);
+
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+        assertFalse(result.hasNext());
+        assertTrue(result.hasPrevious());
+        assertEquals(3L, result.totalElements());
+    }
+
+    @Test
+    void testGetExpensesPageBefore() {
+        Long userId = 1L;
+        ExpenseCursor cursor = new ExpenseCursor(LocalDate.of(2024, 3, 3), 3L);
+        List<Expense> rows = Arrays.asList(
+            createExpenseWithId(6L, LocalDate.of(2024, 3, 6), userId),
+            createExpenseWithId(5L, LocalDate.of(2024, 3, 5), userId),
+            createExpenseWithId(4L, LocalDate.of(2024, 3, 4), userId)
+        );
+        when(mockExpenseDAO.findPageByUserIdBefore(userId, cursor, 3)).thenReturn(rows);
+
+        ExpensePaginationService.PageResult<Expense> result = paginationService.getExpensesPageBefore(cursor.encode(), 2, userId, false);
+
+        assertEquals(List.of(5L, 4L), result.content().stream().map(Expense::getId).toList());
+        assertTrue(result.hasPrevious());
+        assertTrue(result.hasNext());
+        assertEquals(new ExpenseCursor(LocalDate.of(2024, 3, 4), 4L), ExpenseCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> paginationService.getExpensesPageAfter("not-a-cursor", 10, 1L, false));
+    }
+
+    @Test
+    void testGetExpensesPageByQueryClampsToLastPage() {
+        Long userId = 1L;
+        ExpenseQuery query = ExpenseQuery.forUser(userId);
+        when(mockExpenseDAO.findPageByQuery(query, ExpenseSortOrder.AMOUNT, 2, 10)).thenReturn(List.of());
+
+        ExpensePaginationService.PageResult<Expense> result =
+            paginationService.getExpensesPage(query, ExpenseSortOrder.AMOUNT, 7, 10, 25L);
+
+        assertEquals(2, result.currentPage());
+        assertEquals(3, result.totalPages());
+        assertEquals(25L, result.totalElements());
+        verify(mockExpenseDAO).findPageByQuery(query, ExpenseSortOrder.AMOUNT, 2, 10);
+    }
+
+    @Test
+    void testGetExpensesPageByQueryEmptySkipsQuery() {
+        ExpenseQuery query = ExpenseQuery.forUser(1L);
+
+        ExpensePaginationService.PageResult<Expense> result =
+            paginationService.getExpensesPage(query, ExpenseSortOrder.DEFAULT, 0, 10, 0L);
+
+        assertEquals(0, result.totalPages());
+        assertTrue(result.content().isEmpty());
+        verify(mockExpenseDAO, never()).findPageByQuery(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFindPageOfUsesTheRankOfTheExpense() {
+        Expense expense = createExpenseWithId(40L, LocalDate.of(2024, 3, 1), 1L);
+        ExpenseQuery query = ExpenseQuery.forUser(1L);
+        when(mockExpenseDAO.countBefore(query, ExpenseSortOrder.DATE, expense)).thenReturn(25L);
+
+        assertEquals(2, paginationService.findPageOf(expense, query, ExpenseSortOrder.DATE, 10));
+        verify(mockExpenseDAO, never()).findByQuery(any());
+    }
+
+    @Test
+    void testFindPageOfExpenseOutsideTheFilterIsFirstPage() {
+        Expense expense = createExpenseWithId(40L, LocalDate.of(2024, 3, 1), 1L);
+        ExpenseQuery query = ExpenseQuery.forUser(1L).withDateRange(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30));
+
+        assertEquals(0, paginationService.findPageOf(expense, query, ExpenseSortOrder.DATE, 10));
+        verify(mockExpenseDAO, never()).countBefore(any(), any(), any());
+    }
+
+    private Expense createExpenseWithId(Long id, LocalDate date, Long userId) {
+        Expense expense = new Expense("Expense " + id, new BigDecimal("10.00"), ExpenseCategory.FOOD, date, userId);
+        expense.setId(id);
+        return expense;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.service;
+
+import org.example.dao.ExpenseDAO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSummaryServiceTest {
+
+    @Mock
+    private ExpenseDAO expenseDAO;
+
+    @Test
+    void testRebuildAtStartupRecomputesSummaries() {
+        when(expenseDAO.rebuildSummaries()).thenReturn(8);
+        ExpenseWriteVersions writeVersions = new ExpenseWriteVersions();
+        ExpenseSummaryService summaryService = new ExpenseSummaryService(expenseDAO, writeVersions, true);
+
+        summaryService.rebuildAtStartup();
+
+        verify(expenseDAO).rebuildSummaries();
+        assertTrue(writeVersions.currentVersion(2L) > 0);
+    }
+
+    @Test
+    void testRebuildAtStartupCanBeDisabled() {
+        ExpenseSummaryService summaryService = new ExpenseSummaryService(expenseDAO, new ExpenseWriteVersions(), false);
+
+        summaryService.rebuildAtStartup();
+
+        verify(expenseDAO, never()).rebuildSummaries();
+    }
+}
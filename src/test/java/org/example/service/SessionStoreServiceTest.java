@@ -0,0 +1,152 @@
+package org.example.service;
+
+import org.example.dao.InMemorySessionDAO;
+import org.example.dao.SessionDAO;
+import org.example.model.AuthIdentity;
+import org.example.model.StoredSession;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionStoreServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration NEAR_CACHE_TTL = Duration.ofSeconds(30);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-03-01T10:00:00Z"));
+    private final AtomicLong nanos = new AtomicLong();
+    private SessionDAO sessionDAO;
+    private SessionStoreService nodeA;
+    private SessionStoreService nodeB;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        sessionDAO = spy(new InMemorySessionDAO());
+        nodeA = node();
+        nodeB = node();
+        user = new User("user1", "hash");
+        user.setId(2L);
+    }
+
+    @Test
+    void testSessionCreatedOnOneNodeIsFoundOnAnother() {
+        String id = nodeA.create(user);
+
+        assertEquals(new AuthIdentity(2L, UserRole.USER, "user1"), nodeA.find(id));
+        assertEquals(new AuthIdentity(2L, UserRole.USER, "user1"), nodeB.find(id));
+        assertEquals(43, id.length());
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedByTheNearCache() {
+        String id = nodeA.create(user);
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(nodeA.find(id));
+            assertNotNull(nodeB.find(id));
+        }
+
+        // The creating node cached the session when it wrote it; the other node read it once
+        verify(sessionDAO, times(1)).findById(id);
+    }
+
+    @Test
+    void testLogoutReachesOtherNodesWhenTheirNearCacheEntryExpires() {
+        String id = nodeA.create(user);
+        assertNotNull(nodeB.find(id));
+
+        nodeA.invalidate(id);
+        assertNull(nodeA.find(id));
+        assertNotNull(nodeB.find(id));
+
+        nanos.addAndGet(NEAR_CACHE_TTL.toNanos() + 1);
+        assertNull(nodeB.find(id));
+    }
+
+    @Test
+    void testSessionExpiresWithoutUse() {
+        String id = nodeA.create(user);
+
+        now.set(now.get().plus(TIMEOUT).plusSeconds(1));
+
+        assertNull(nodeA.find(id));
+        assertNull(nodeB.find(id));
+    }
+
+    @Test
+    void testActiveSessionIsExtendedOnceItIsPastHalfItsTimeout() {
+        String id = nodeA.create(user);
+
+        now.set(now.get().plus(Duration.ofMinutes(10)));
+        assertNotNull(nodeA.find(id));
+        verify(sessionDAO, never()).updateExpiry(any(), any());
+
+        now.set(now.get().plus(Duration.ofMinutes(10)));
+        assertNotNull(nodeA.find(id));
+        assertNotNull(nodeA.find(id));
+        verify(sessionDAO, times(1)).updateExpiry(id, now.get().plus(TIMEOUT));
+
+        // Past the original expiry, but the extension keeps it alive on both nodes
+        now.set(now.get().plus(Duration.ofMinutes(20)));
+        assertNotNull(nodeA.find(id));
+        assertNotNull(nodeB.find(id));
+    }
+
+    @Test
+    void testUnknownAndMalformedIdsAreRejected() {
+        assertNull(nodeA.find(null));
+        assertNull(nodeA.find("short"));
+        assertNull(nodeA.find("x".repeat(43)));
+        verify(sessionDAO, times(1)).findById(anyString());
+    }
+
+    @Test
+    void testCleanupDeletesExpiredSessions() {
+        String expired = nodeA.create(user);
+        now.set(now.get().plus(Duration.ofMinutes(40)));
+        String current = nodeA.create(user);
+
+        nodeA.deleteExpired();
+
+        assertNull(sessionDAO.findById(expired));
+        assertInstanceOf(StoredSession.class, sessionDAO.findById(current));
+    }
+
+    @Test
+    void testWithoutASessionDAOTheStoreIsDisabled() {
+        assertFalse(new SessionStoreService(null, TIMEOUT, NEAR_CACHE_TTL, 10, Clock.systemUTC(), nanos::get).isEnabled());
+        assertTrue(nodeA.isEnabled());
+    }
+
+    private SessionStoreService node() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneId.of("UTC");
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        return new SessionStoreService(sessionDAO, TIMEOUT, NEAR_CACHE_TTL, 100, clock, nanos::get);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.service;
+
+import org.example.model.AuthIdentity;
+import org.example.model.User;
+import org.example.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    private SessionTokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new SessionTokenService(true, KEY, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        user = new User("ann:admin", "hash");
+        user.setId(42L);
+        user.setRole(UserRole.ADMIN);
+    }
+
+    @Test
+    void testIssuedTokenVerifies() {
+        AuthIdentity identity = tokenService.verify(tokenService.issue(user));
+
+        assertEquals(new AuthIdentity(42L, UserRole.ADMIN, "ann:admin"), identity);
+    }
+
+    @Test
+    void testTokenFromAnotherNodeWithTheSameKeyVerifies() {
+        SessionTokenService otherNode = new SessionTokenService(true, KEY.clone(), Duration.ofHours(1),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertNotNull(otherNode.verify(tokenService.issue(user)));
+    }
+
+    @Test
+    void testTamperedPayloadIsRejected() {
+        String token = tokenService.issue(user);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("1:ADMIN:" + NOW.plusSeconds(3600).getEpochSecond() + ":mallory").getBytes(StandardCharsets.UTF_8));
+
+        assertNull(tokenService.verify(forged + token.substring(token.indexOf('.'))));
+    }
+
+    @Test
+    void testTokenSignedWithAnotherKeyIsRejected() {
+        SessionTokenService otherKey = new SessionTokenService(true,
+            "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertNull(tokenService.verify(otherKey.issue(user)));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        String token = tokenService.issue(user);
+        SessionTokenService later = new SessionTokenService(true, KEY, Duration.ofHours(1),
+            Clock.fixed(NOW.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        assertNull(later.verify(token));
+    }
+
+    @Test
+    void testMalformedTokensAreRejected() {
+        assertNull(tokenService.verify(null));
+        assertNull(tokenService.verify(""));
+        assertNull(tokenService.verify("no-signature"));
+        assertNull(tokenService.verify("abc.%%%"));
+        assertNull(tokenService.verify(".abc"));
+    }
+
+    @Test
+    void testShortSecretIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new SessionTokenService(true, "too short", 60));
+    }
+}
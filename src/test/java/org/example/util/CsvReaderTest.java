@@ -0,0 +1,60 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    void testReadsSimpleRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b,c\n1,2,3\n"));
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("1", "2", "3"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testQuotedFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("1,\"Dinner, \"\"Luigi's\"\"\r\nwith team\",40.00\r\n2,Bus,2.50"));
+
+        assertEquals(List.of("1", "Dinner, \"Luigi's\"\r\nwith team", "40.00"), reader.next());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("2", "Bus", "2.50"), reader.next());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testSkipsBlankLinesAndKeepsEmptyFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\n\na,,c\n\n,\n"));
+
+        assertEquals(List.of("a", "", "c"), reader.next());
+        assertEquals(3, reader.getRecordLine());
+        assertEquals(List.of("", ""), reader.next());
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testRecordsSpanningBufferBoundaries() throws IOException {
+        String description = "x".repeat(20000);
+        CsvReader reader = new CsvReader(new StringReader("\"" + description + "\",1\n" + description + ",2\n"));
+
+        assertEquals(List.of(description, "1"), reader.next());
+        assertEquals(List.of(description, "2"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testUnterminatedQuoteFails() {
+        CsvReader reader = new CsvReader(new StringReader("1,\"never closed\n2,ok\n"));
+
+        assertThrows(IOException.class, reader::next);
+    }
+}
@@ -1,12 +1,17 @@
 package org.example.util;
 
 import jakarta.servlet.http.HttpSession;
+import org.example.model.AuthIdentity;
 import org.example.model.UserRole;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import static org.example.util.SessionHelper.isAdmin;
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +27,11 @@ public class SessionHelperTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     void testGetUserId_ReturnsUserIdFromSession() {
         Long expectedUserId = 123L;
@@ -90,4 +100,26 @@ public class SessionHelperTest {
         assertNotNull(result);
         assertEquals(401, result.getStatusCode().value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTokenIdentityOnTheRequestIsUsedWithoutASession() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(AuthIdentity.REQUEST_ATTRIBUTE, new AuthIdentity(7L, UserRole.ADMIN, "ann"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals(7L, SessionHelper.getUserId(null));
+        assertEquals("ann", SessionHelper.getUsername(null));
+        assertTrue(isAdmin(null));
+        assertNull(SessionHelper.validateSession(null));
+    }
+
+    @Test
+    void testRequestWithoutTokenFallsBackToTheSession() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(session.getAttribute("userId")).thenReturn(5L);
+        when(session.getAttribute("username")).thenReturn("bob");
+
+        assertEquals(5L, SessionHelper.getUserId(session));
+        assertEquals("bob", SessionHelper.getUsername(session));
+    }
+}
@@ -1,3 +1,5 @@
+-- schema.sql as shipped before the Flyway migrations; the docker-compose mysql_data volume holds this schema
+
 -- Create users table
 CREATE TABLE IF NOT EXISTS users (
     id INT PRIMARY KEY AUTO_INCREMENT,
@@ -21,4 +23,4 @@ CREATE TABLE IF NOT EXISTS expenses (
 -- Insert demo users
 INSERT IGNORE INTO users (username, password, role) VALUES ('admin', 'admin', 'ADMIN');
 INSERT IGNORE INTO users (username, password, role) VALUES ('user1', 'user1', 'USER');
-INSERT IGNORE INTO users (username, password, role) VALUES ('user2', 'user2', 'USER');
\ No newline at end of file
+INSERT IGNORE INTO users (username, password, role) VALUES ('user2', 'user2', 'USER');